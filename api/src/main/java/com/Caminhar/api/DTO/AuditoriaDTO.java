@@ -0,0 +1,14 @@
+package com.Caminhar.api.DTO;
+
+import com.Caminhar.api.model.Auditoria;
+
+import java.time.Instant;
+
+public record AuditoriaDTO(Long id, Instant momento, String usuario, String acao, String recurso,
+                           Long recursoId, Long pacienteId, String detalhe) {
+
+    public AuditoriaDTO(Auditoria a) {
+        this(a.getId(), a.getMomento(), a.getUsuario(), a.getAcao().name(), a.getRecurso(),
+                a.getRecursoId(), a.getPacienteId(), a.getDetalhe());
+    }
+}
@@ -0,0 +1,5 @@
+package com.Caminhar.api.DTO;
+
+public record CacheEstatisticasDTO(String regiao, long acertos, long faltas, float taxaAcerto,
+                                   long insercoes, long remocoes, long expulsoes) {
+}
@@ -0,0 +1,7 @@
+package com.Caminhar.api.DTO;
+
+import java.time.LocalDate;
+
+// Paciente já cadastrado com nome parecido e mesma data de nascimento
+public record CandidatoDuplicadoDTO(Long id, String nome, LocalDate dataNascimento, double similaridade) {
+}
@@ -0,0 +1,4 @@
+package com.Caminhar.api.DTO;
+
+public record DiagnosticoTotalDTO(String diagnostico, long total) {
+}
@@ -0,0 +1,4 @@
+package com.Caminhar.api.DTO;
+
+public record ErroImportacaoDTO(long linha, String mensagem) {
+}
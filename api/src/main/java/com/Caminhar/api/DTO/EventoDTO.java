@@ -0,0 +1,6 @@
+package com.Caminhar.api.DTO;
+
+// Aviso de escrita enviado pelo /events. versao é a versão de sync da alteração: com ela o
+// cliente pode pedir só o que mudou ao /sync. id é nulo nas importações em lote.
+public record EventoDTO(String tipo, String acao, Long id, long versao) {
+}
@@ -0,0 +1,6 @@
+package com.Caminhar.api.DTO;
+
+import java.util.List;
+
+public record ImportacaoResultadoDTO(long totalLinhas, long importados, long comErro, List<ErroImportacaoDTO> erros) {
+}
@@ -0,0 +1,6 @@
+package com.Caminhar.api.DTO;
+
+// Um item da busca em lote, na posição do id pedido; encontrado=false e dados nulo quando
+// o id não existe (ou foi removido)
+public record ItemLoteDTO<T>(Long id, boolean encontrado, T dados) {
+}
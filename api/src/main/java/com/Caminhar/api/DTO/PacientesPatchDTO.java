@@ -0,0 +1,8 @@
+package com.Caminhar.api.DTO;
+
+import java.time.LocalDate;
+
+// Alteração parcial: só os campos presentes mudam. versao é a que o cliente leu (ou vai no If-Match);
+// sem ela a alteração é recusada com 428 e, se o paciente mudou desde então, com 409
+public record PacientesPatchDTO(String cpf, String nomePas, LocalDate dataNascimento, String cep, String telefone, String endereco, String observacoes, Boolean obito, Long versao) {
+}
@@ -0,0 +1,6 @@
+package com.Caminhar.api.DTO;
+
+import java.util.List;
+
+public record PaginaDTO<T>(List<T> itens, String proximoCursor) {
+}
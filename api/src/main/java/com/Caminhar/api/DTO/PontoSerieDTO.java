@@ -0,0 +1,7 @@
+package com.Caminhar.api.DTO;
+
+import java.time.LocalDate;
+
+// Um balde da série: começa em "inicio" (dia, segunda-feira da semana ou dia 1 do mês)
+public record PontoSerieDTO(LocalDate inicio, long consultas, long novosPacientes) {
+}
@@ -0,0 +1,7 @@
+package com.Caminhar.api.DTO;
+
+import java.time.LocalDate;
+
+// Mesma regra do PacientesPatchDTO: campos ausentes ficam como estão, versao é a lida pelo cliente
+public record RegistroConsultaPatchDTO(String consulta, String sintomas, String diagnostico, String exames, LocalDate dataRegistro, Long pacienteId, Long versao) {
+}
@@ -2,5 +2,5 @@ package com.Caminhar.api.DTO;
 
 import java.time.LocalDate;
 
-public record RegistroConsultaRequestDTO(String consulta, String sintomas, String diagnostico, String exames, LocalDate dataRegistro){
+public record RegistroConsultaRequestDTO(String consulta, String sintomas, String diagnostico, String exames, LocalDate dataRegistro, Long pacienteId){
 }
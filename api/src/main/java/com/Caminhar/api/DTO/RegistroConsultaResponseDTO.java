@@ -3,10 +3,11 @@ package com.Caminhar.api.DTO;
 import com.Caminhar.api.model.RegistroConsultas;
 import java.time.LocalDate;
 
-public record RegistroConsultaResponseDTO(Long id, String consulta, String sintomas, String diagnostico, String exames, LocalDate dataRegistro){
+public record RegistroConsultaResponseDTO(Long id, String consulta, String sintomas, String diagnostico, String exames, LocalDate dataRegistro, Long pacienteId, Long versao){
 
 
     public RegistroConsultaResponseDTO(RegistroConsultas r){
-        this(r.getId(), r.getConsulta(), r.getSintomas(), r.getDiagnostico(), r.getExames(), r.getDataRegistro());
+        this(r.getId(), r.getConsulta(), r.getSintomas(), r.getDiagnostico(), r.getExames(), r.getDataRegistro(),
+                r.getPaciente() != null ? r.getPaciente().getId() : null, r.getVersao());
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.Caminhar.api.DTO;
+
+import java.time.LocalDate;
+
+// Projeção leve da listagem: deixa de fora as colunas TEXT (sintomas, diagnostico, exames)
+public record RegistroConsultaResumoDTO(Long id, String consulta, LocalDate dataRegistro) {
+}
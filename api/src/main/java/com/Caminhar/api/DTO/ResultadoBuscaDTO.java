@@ -0,0 +1,4 @@
+package com.Caminhar.api.DTO;
+
+public record ResultadoBuscaDTO(String tipo, Long id, String titulo, float relevancia) {
+}
@@ -0,0 +1,12 @@
+package com.Caminhar.api.DTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SerieDashboardDTO(
+        LocalDate inicio,
+        LocalDate fim,
+        String granularidade,
+        List<PontoSerieDTO> pontos,
+        List<DiagnosticoTotalDTO> principaisDiagnosticos
+) {}
@@ -0,0 +1,9 @@
+package com.Caminhar.api.DTO;
+
+// Marcação de item removido no /sync: o cliente apaga o id da cópia local
+public record SyncRemovidoDTO(Long id, boolean removido) {
+
+    public SyncRemovidoDTO(Long id) {
+        this(id, true);
+    }
+}
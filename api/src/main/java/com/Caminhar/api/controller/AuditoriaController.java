@@ -0,0 +1,27 @@
+package com.Caminhar.api.controller;
+
+import com.Caminhar.api.DTO.AuditoriaDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
+import com.Caminhar.api.service.AuditoriaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/auditoria")
+public class AuditoriaController {
+
+    @Autowired
+    private AuditoriaService service;
+
+    // Filtra por paciente ou por usuário (login); sem filtro, lista tudo do mais recente ao mais antigo
+    @GetMapping
+    public PaginaDTO<AuditoriaDTO> consultar(@RequestParam(required = false) Long pacienteId,
+                                             @RequestParam(required = false) String usuario,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limite) {
+        return service.consultar(pacienteId, usuario, cursor, limite);
+    }
+}
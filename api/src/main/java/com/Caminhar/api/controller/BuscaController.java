@@ -0,0 +1,22 @@
+package com.Caminhar.api.controller;
+
+import com.Caminhar.api.DTO.ResultadoBuscaDTO;
+import com.Caminhar.api.service.BuscaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/busca")
+public class BuscaController {
+
+    @Autowired
+    private BuscaService service;
+
+    @GetMapping
+    public List<ResultadoBuscaDTO> buscar(@RequestParam String q,
+                                          @RequestParam(defaultValue = "20") int limite) {
+        return service.buscar(q, Math.min(Math.max(limite, 1), 100));
+    }
+}
@@ -0,0 +1,23 @@
+package com.Caminhar.api.controller;
+
+import com.Caminhar.api.DTO.CacheEstatisticasDTO;
+import com.Caminhar.api.service.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    @Autowired
+    private CacheService service;
+
+    @GetMapping("/estatisticas")
+    public List<CacheEstatisticasDTO> estatisticas() {
+        return service.estatisticas();
+    }
+}
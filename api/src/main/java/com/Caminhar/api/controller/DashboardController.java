@@ -3,9 +3,11 @@ package com.Caminhar.api.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import com.Caminhar.api.repository.PacientesRepository;
-import com.Caminhar.api.repository.RegistroConsultasRepository;
 import com.Caminhar.api.DTO.DashboardStatsDTO;
+import com.Caminhar.api.DTO.SerieDashboardDTO;
+import com.Caminhar.api.service.DashboardService;
+import com.Caminhar.api.service.ResumoService;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 
@@ -14,22 +16,22 @@ import java.time.LocalDate;
 public class DashboardController {
 
     @Autowired
-    private PacientesRepository pacientesRepository;
+    private DashboardService dashboardService;
 
     @Autowired
-    private RegistroConsultasRepository registroConsultasRepository;
+    private ResumoService resumoService;
 
     @GetMapping("/stats")
     public DashboardStatsDTO getStats() {
+        return dashboardService.estatisticas();
+    }
 
-        long totalPacientes = pacientesRepository.count();
-        long prontuariosHoje = registroConsultasRepository.countByData(LocalDate.now());
-        long novosRegistros = registroConsultasRepository.countUltimos30Dias();
-
-        return new DashboardStatsDTO(
-                totalPacientes,
-                prontuariosHoje,
-                novosRegistros
-        );
+    // granularidade: dia, semana ou mes; sem período, os últimos 30 dias
+    @GetMapping("/series")
+    public SerieDashboardDTO series(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                    @RequestParam(required = false) String granularidade,
+                                    @RequestParam(required = false) Integer diagnosticos) {
+        return resumoService.serie(inicio, fim, granularidade, diagnosticos);
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.Caminhar.api.controller;
+
+import com.Caminhar.api.service.EventosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class EventosController {
+
+    @Autowired
+    private EventosService service;
+
+    // Eventos: estatisticas (DashboardStatsDTO), paciente e registro (EventoDTO) e resync (recarregar tudo).
+    // O EventSource do navegador não manda cabeçalhos: o token pode vir em ?access_token=
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventos() {
+        SseEmitter emitter = service.inscrever();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Sem buffer no proxy (nginx), senão os eventos chegam atrasados
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -0,0 +1,72 @@
+package com.Caminhar.api.controller;
+
+import com.Caminhar.api.service.ExportacaoService;
+import com.Caminhar.api.service.ImportacaoPacientesService.Formato;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/exportacao")
+public class ExportacaoController {
+
+    @Autowired
+    private ExportacaoService service;
+
+    // formato: csv (padrão) ou ndjson; gzip=true devolve o arquivo já compactado (.gz)
+    @GetMapping("/pacientes")
+    public void pacientes(@RequestParam(defaultValue = "csv") String formato,
+                          @RequestParam(defaultValue = "false") boolean gzip,
+                          HttpServletResponse response) throws IOException {
+        Formato f = formato(formato);
+        try (OutputStream saida = abrir(response, "pacientes", f, gzip)) {
+            service.exportarPacientes(f, saida);
+        }
+    }
+
+    @GetMapping("/registros")
+    public void registros(@RequestParam(defaultValue = "csv") String formato,
+                          @RequestParam(defaultValue = "false") boolean gzip,
+                          HttpServletResponse response) throws IOException {
+        Formato f = formato(formato);
+        try (OutputStream saida = abrir(response, "registros", f, gzip)) {
+            service.exportarRegistros(f, saida);
+        }
+    }
+
+    private Formato formato(String valor) {
+        try {
+            return Formato.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Formato inválido: use csv ou ndjson");
+        }
+    }
+
+    // Sem gzip=true o Tomcat ainda comprime no transporte para quem manda Accept-Encoding: gzip
+    private OutputStream abrir(HttpServletResponse response, String nome, Formato formato, boolean gzip) throws IOException {
+        String arquivo = nome + "-" + LocalDate.now() + (formato == Formato.CSV ? ".csv" : ".ndjson");
+        String tipo = formato == Formato.CSV ? "text/csv" : "application/x-ndjson";
+
+        response.setCharacterEncoding("UTF-8");
+        if (gzip) {
+            arquivo += ".gz";
+            response.setContentType("application/gzip");
+        } else {
+            response.setContentType(tipo);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"");
+
+        OutputStream saida = response.getOutputStream();
+        return gzip ? new GZIPOutputStream(saida, 64 * 1024, true) : saida;
+    }
+}
@@ -1,14 +1,34 @@
 package com.Caminhar.api.controller;
 
+import com.Caminhar.api.DTO.CandidatoDuplicadoDTO;
+import com.Caminhar.api.DTO.ImportacaoResultadoDTO;
+import com.Caminhar.api.DTO.ItemLoteDTO;
+import com.Caminhar.api.DTO.PacientesPatchDTO;
 import com.Caminhar.api.DTO.PacientesRequestDTO;
 import com.Caminhar.api.DTO.PacientesResponseDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
+import com.Caminhar.api.infra.web.VersaoEdicao;
+import com.Caminhar.api.infra.web.Versionado;
+import com.Caminhar.api.service.ImportacaoPacientesService;
 import com.Caminhar.api.service.PacientesService;
+import com.Caminhar.api.service.RegistroConsultaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import static com.Caminhar.api.infra.web.VersaoTabelas.Tabela.PACIENTES;
+import static com.Caminhar.api.infra.web.VersaoTabelas.Tabela.REGISTROS;
+
 @RestController
 @RequestMapping("pacientes")
 public class PacientesController {
@@ -16,19 +36,92 @@ public class PacientesController {
     @Autowired
     private PacientesService service;
 
+    @Autowired
+    private ImportacaoPacientesService importacaoService;
+
+    @Autowired
+    private RegistroConsultaService registroService;
+
     @GetMapping
+    @Versionado(PACIENTES)
     public List<PacientesResponseDTO> GetAll() {
         return service.listar();
     }
 
+    @GetMapping("/pagina")
+    @Versionado(PACIENTES)
+    public PaginaDTO<PacientesResponseDTO> listarPagina(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limite) {
+        return service.listarPagina(cursor, limite);
+    }
+
+    // ?ids=1,2,3 (até api.lote.max-ids): uma consulta só, resposta na ordem dos ids
+    @GetMapping("/batch")
+    @Versionado(PACIENTES)
+    public List<ItemLoteDTO<PacientesResponseDTO>> buscarLote(@RequestParam List<Long> ids) {
+        return service.buscarLote(ids);
+    }
+
+    // A ETag é a versao do paciente: serve de If-Match no PUT/PATCH
+    @GetMapping("/{id}")
+    public ResponseEntity<PacientesResponseDTO> findById(@PathVariable Long id) {
+        PacientesResponseDTO paciente = service.findById(id);
+        return ResponseEntity.ok().eTag(VersaoEdicao.etag(paciente.versao())).body(paciente);
+    }
+
+    @GetMapping("/stream")
+    public void stream(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        service.escreverTodos(response.getOutputStream());
+    }
+
+    // Cadastros com nome parecido e a mesma data de nascimento (ou com dia e mês trocados)
+    @GetMapping("/duplicados")
+    public List<CandidatoDuplicadoDTO> possiveisDuplicados(@RequestParam String nome,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataNascimento,
+                                                          @RequestParam(required = false) Long ignorarId) {
+        return service.possiveisDuplicados(nome, dataNascimento, ignorarId);
+    }
+
+    @GetMapping("/{id}/registros")
+    @Versionado({PACIENTES, REGISTROS})
+    public PaginaDTO<?> linhaDoTempo(@PathVariable Long id,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limite,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                     @RequestParam(defaultValue = "false") boolean completo) {
+        return registroService.linhaDoTempo(id, cursor, limite, inicio, fim, completo);
+    }
+
     @PostMapping
     public PacientesResponseDTO criar(@RequestBody PacientesRequestDTO dto) {
         return service.criar(dto);
     }
 
+    // Corpo em text/csv (com cabeçalho) ou application/x-ndjson (um paciente por linha)
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    public ImportacaoResultadoDTO importar(HttpServletRequest request) throws IOException {
+        ImportacaoPacientesService.Formato formato = request.getContentType().startsWith("text/csv")
+                ? ImportacaoPacientesService.Formato.CSV
+                : ImportacaoPacientesService.Formato.NDJSON;
+
+        return importacaoService.importar(request.getInputStream(), formato);
+    }
+
+    // Exige a versao lida no If-Match: sem ela 428, desatualizada 409
     @PutMapping("/{id}")
-    public PacientesResponseDTO atualizar(@PathVariable Long id, @RequestBody PacientesRequestDTO dto) {
-        return service.atualizar(id, dto);
+    public PacientesResponseDTO atualizar(@PathVariable Long id, @RequestBody PacientesRequestDTO dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.atualizar(id, dto, VersaoEdicao.exigir(null, ifMatch));
+    }
+
+    // Alteração parcial; a versao lida vem no corpo ou no If-Match, com as mesmas respostas do PUT
+    @PatchMapping("/{id}")
+    public PacientesResponseDTO alterar(@PathVariable Long id, @RequestBody PacientesPatchDTO dto,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.alterar(id, dto, VersaoEdicao.exigir(dto.versao(), ifMatch));
     }
 
     @DeleteMapping("/{id}")
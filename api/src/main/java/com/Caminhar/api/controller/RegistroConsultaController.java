@@ -1,13 +1,24 @@
 package com.Caminhar.api.controller;
 
+import com.Caminhar.api.DTO.ItemLoteDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
+import com.Caminhar.api.DTO.RegistroConsultaPatchDTO;
 import com.Caminhar.api.DTO.RegistroConsultaRequestDTO;
 import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.infra.web.VersaoEdicao;
+import com.Caminhar.api.infra.web.Versionado;
 import com.Caminhar.api.service.RegistroConsultaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import static com.Caminhar.api.infra.web.VersaoTabelas.Tabela.REGISTROS;
+
 @RestController
 @RequestMapping("/registro-consultas")
 public class RegistroConsultaController {
@@ -16,13 +27,33 @@ public class RegistroConsultaController {
     private RegistroConsultaService service;
 
     @GetMapping
+    @Versionado(REGISTROS)
     public List<RegistroConsultaResponseDTO> listar() {
         return service.listar();
     }
 
+    @GetMapping("/pagina")
+    @Versionado(REGISTROS)
+    public PaginaDTO<?> listarPagina(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limite,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                     @RequestParam(defaultValue = "false") boolean completo) {
+        return service.listarPagina(cursor, limite, inicio, fim, completo);
+    }
+
+    @GetMapping("/batch")
+    @Versionado(REGISTROS)
+    public List<ItemLoteDTO<RegistroConsultaResponseDTO>> buscarLote(@RequestParam List<Long> ids) {
+        return service.buscarLote(ids);
+    }
+
+    // A ETag é a versao do registro, para o If-Match do PUT/PATCH
     @GetMapping("/{id}")
-    public RegistroConsultaResponseDTO findById(@PathVariable Long id) {
-        return service.findById(id);
+    public ResponseEntity<RegistroConsultaResponseDTO> findById(@PathVariable Long id) {
+        RegistroConsultaResponseDTO registro = service.findById(id);
+        if (registro.versao() == null) return ResponseEntity.ok(registro);
+        return ResponseEntity.ok().eTag(VersaoEdicao.etag(registro.versao())).body(registro);
     }
 
     @PostMapping
@@ -31,8 +62,16 @@ public class RegistroConsultaController {
     }
 
     @PutMapping("/{id}")
-    public RegistroConsultaResponseDTO update(@PathVariable Long id, @RequestBody RegistroConsultaRequestDTO dto) {
-        return service.update(id, dto);
+    public RegistroConsultaResponseDTO update(@PathVariable Long id, @RequestBody RegistroConsultaRequestDTO dto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.update(id, dto, VersaoEdicao.exigir(null, ifMatch));
+    }
+
+    // Só os campos enviados; a versao lida (corpo ou If-Match) é obrigatória, como no PUT
+    @PatchMapping("/{id}")
+    public RegistroConsultaResponseDTO alterar(@PathVariable Long id, @RequestBody RegistroConsultaPatchDTO dto,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.alterar(id, dto, VersaoEdicao.exigir(dto.versao(), ifMatch));
     }
 
     @DeleteMapping("/{id}")
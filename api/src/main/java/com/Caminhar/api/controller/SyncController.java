@@ -0,0 +1,33 @@
+package com.Caminhar.api.controller;
+
+import com.Caminhar.api.infra.web.Versionado;
+import com.Caminhar.api.service.SyncService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+import static com.Caminhar.api.infra.web.VersaoTabelas.Tabela.PACIENTES;
+import static com.Caminhar.api.infra.web.VersaoTabelas.Tabela.REGISTROS;
+
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService service;
+
+    // since = "versao" devolvida pelo sync anterior; sem ele vem a base inteira
+    @GetMapping
+    @Versionado({PACIENTES, REGISTROS})
+    public void sync(@RequestParam(required = false) Long since, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        service.escrever(since, response.getOutputStream());
+    }
+}
@@ -1,46 +1,74 @@
 package com.Caminhar.api.controller.autentication;
 
-import com.Caminhar.api.infra.tokenService.TokenService;
+import com.Caminhar.api.infra.security.HashSenhas;
+import com.Caminhar.api.infra.security.LimiteTentativasException;
 import com.Caminhar.api.DTO.AutenticationDTO;
+import com.Caminhar.api.DTO.RefreshTokenDTO;
 import com.Caminhar.api.DTO.RegisterDTO;
 import com.Caminhar.api.model.user.User;
 import com.Caminhar.api.repository.UserRepository;
 import com.Caminhar.api.service.login.LoginResponseDTO;
+import com.Caminhar.api.service.login.LoginService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 public class AutenticationController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
 
     @Autowired
-    private UserRepository userRepository;
+    private HashSenhas hashSenhas;
 
     @Autowired
-    private TokenService tokenService;
+    private UserRepository userRepository;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid AutenticationDTO data) {
-        UsernamePasswordAuthenticationToken userAuth =
-                new UsernamePasswordAuthenticationToken(data.login(), data.password());
-
-        Authentication authentication = authenticationManager.authenticate(userAuth);
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody @Valid AutenticationDTO data,
+                                                                     HttpServletRequest request) {
+        try {
+            return loginService.login(data, request.getRemoteAddr())
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(erro -> recusar(erro instanceof CompletionException ? erro.getCause() : erro));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(recusar(e));
+        }
+    }
 
-        String token = tokenService.generateToken((User) authentication.getPrincipal());
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody RefreshTokenDTO data) {
+        try {
+            return ResponseEntity.ok(loginService.renovar(data.refreshToken()));
+        } catch (BadCredentialsException | AccountStatusException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
 
-        return ResponseEntity.ok(new LoginResponseDTO(token));
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenDTO data) {
+        String tokenAcesso = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length())
+                : null;
+        loginService.sair(tokenAcesso, data != null ? data.refreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/register")
@@ -49,11 +77,34 @@ public class AutenticationController {
             return ResponseEntity.badRequest().body("Usuário já existente");
         }
 
-        String encryptedPassword = new BCryptPasswordEncoder().encode(data.password());
+        String encryptedPassword;
+        try {
+            encryptedPassword = hashSenhas.gerarHash(data.password()).join();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
         User newUser = new User(data.login(), encryptedPassword, data.role());
 
         userRepository.save(newUser);
 
         return ResponseEntity.ok("Usuário registrado com sucesso");
     }
+
+    private ResponseEntity<LoginResponseDTO> recusar(Throwable erro) {
+        if (erro instanceof LimiteTentativasException limite) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(limite.getSegundosParaNovaTentativa()))
+                    .build();
+        }
+        // Pool do BCrypt cheio
+        if (erro instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        // Senha errada ou conta desativada, bloqueada ou expirada
+        if (erro instanceof BadCredentialsException || erro instanceof AccountStatusException) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (erro instanceof RuntimeException e) throw e;
+        throw new RuntimeException(erro);
+    }
 }
@@ -0,0 +1,80 @@
+package com.Caminhar.api.infra.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Regiões do cache de segundo nível do Hibernate, em memória e com tamanho limitado.
+// Todas são criadas aqui; o Hibernate recusa subir com uma região que não esteja na lista.
+@Configuration
+public class CacheConfig {
+
+    public static final String PACIENTES = "pacientes";
+    public static final String REGISTROS = "registro_consultas";
+    public static final String USUARIOS = "users";
+    public static final String CONSULTAS = "default-query-results-region";
+    public static final String TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> REGIOES = List.of(PACIENTES, REGISTROS, USUARIOS, CONSULTAS, TIMESTAMPS);
+
+    @Value("${api.cache.pacientes.tamanho:10000}")
+    private long tamanhoPacientes;
+
+    @Value("${api.cache.registros.tamanho:20000}")
+    private long tamanhoRegistros;
+
+    @Value("${api.cache.usuarios.tamanho:1000}")
+    private long tamanhoUsuarios;
+
+    @Value("${api.cache.consultas.tamanho:1000}")
+    private long tamanhoConsultas;
+
+    // Rede de segurança para alterações feitas fora da aplicação
+    @Value("${api.cache.ttl-minutos:60}")
+    private long ttlMinutos;
+
+    private static final AtomicInteger CONTEXTOS = new AtomicInteger();
+
+    // Um CacheManager por contexto do Spring. O padrão do provedor é um só para a JVM inteira: um segundo
+    // contexto (nos testes, por exemplo) recriaria as regiões que o primeiro ainda está usando.
+    // O nome também entra no JMX (CacheManager=...), e por isso só tem letras, dígitos e hífen.
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate() {
+        URI uri = URI.create("caminhar-hibernate-" + CONTEXTOS.incrementAndGet());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, CacheConfig.class.getClassLoader());
+
+        criar(cacheManager, PACIENTES, OptionalLong.of(tamanhoPacientes));
+        criar(cacheManager, REGISTROS, OptionalLong.of(tamanhoRegistros));
+        criar(cacheManager, USUARIOS, OptionalLong.of(tamanhoUsuarios));
+        criar(cacheManager, CONSULTAS, OptionalLong.of(tamanhoConsultas));
+        // Uma entrada por tabela; expulsar daqui faria o cache de consultas servir resultado velho
+        criar(cacheManager, TIMESTAMPS, OptionalLong.empty());
+
+        return cacheManager;
+    }
+
+    private void criar(CacheManager cacheManager, String regiao, OptionalLong tamanho) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(tamanho);
+        if (!regiao.equals(TIMESTAMPS)) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutos)));
+        }
+        // As entradas do Hibernate são imutáveis: dispensa a cópia por serialização do JCache
+        configuracao.setStoreByValue(false);
+        // Publica acertos, faltas e expulsões no JMX (javax.cache:type=CacheStatistics)
+        configuracao.setStatisticsEnabled(true);
+
+        cacheManager.createCache(regiao, configuracao);
+    }
+}
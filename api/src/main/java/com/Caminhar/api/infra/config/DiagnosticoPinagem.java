@@ -0,0 +1,84 @@
+package com.Caminhar.api.infra.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Acompanha pelo JFR os trechos em que uma thread virtual fica presa à thread de plataforma
+// (bloqueio dentro de synchronized ou em código nativo), que anulam o ganho do modo virtual.
+// Cada ponto de origem é registrado na primeira ocorrência e depois a cada 100.
+public class DiagnosticoPinagem {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticoPinagem.class);
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    @Value("${api.threads-virtuais.pinagem-limiar-ms:20}")
+    private long limiarMs;
+
+    private final Map<String, AtomicLong> ocorrenciasPorOrigem = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(Duration.ofMillis(limiarMs)).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        logger.info("Diagnóstico de pinagem de threads virtuais ativo (limiar de {} ms)", limiarMs);
+    }
+
+    @PreDestroy
+    void parar() {
+        stream.close();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        RecordedStackTrace pilha = evento.getStackTrace();
+        List<RecordedFrame> frames = pilha != null ? pilha.getFrames() : List.of();
+
+        String origem = origem(frames);
+        long total = ocorrenciasPorOrigem.computeIfAbsent(origem, o -> new AtomicLong()).incrementAndGet();
+        if (total != 1 && total % 100 != 0) return;
+
+        StringBuilder trecho = new StringBuilder();
+        for (int i = 0; i < Math.min(frames.size(), 12); i++) {
+            trecho.append("\n\tat ").append(descrever(frames.get(i)));
+        }
+        logger.warn("Thread virtual presa por {} ms em {} ({} ocorrências){}",
+                evento.getDuration().toMillis(), origem, total, trecho);
+    }
+
+    // Primeiro quadro da aplicação; sem ele, o primeiro fora do JDK
+    private static String origem(List<RecordedFrame> frames) {
+        String foraDoJdk = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) continue;
+            String classe = frame.getMethod().getType().getName();
+            if (classe.startsWith("com.Caminhar.")) return descrever(frame);
+            if (foraDoJdk == null && !classe.startsWith("java.") && !classe.startsWith("jdk.")
+                    && !classe.startsWith("sun.")) {
+                foraDoJdk = descrever(frame);
+            }
+        }
+        return foraDoJdk != null ? foraDoJdk : "desconhecida";
+    }
+
+    private static String descrever(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,53 @@
+package com.Caminhar.api.infra.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.Map;
+
+@Configuration
+public class JpaConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${api.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Value("${api.cache.habilitado:true}")
+    private boolean cacheHabilitado;
+
+    @Value("${api.replicas.urls:}")
+    private String replicas;
+
+    @Autowired
+    private CacheManager cacheManagerHibernate;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        // Agrupa os INSERT/UPDATE em lotes JDBC (só funciona com ids que não sejam IDENTITY)
+        hibernateProperties.put("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.put("hibernate.order_inserts", true);
+        hibernateProperties.put("hibernate.order_updates", true);
+
+        // registro_consultas vira tabela particionada no PostgreSQL (ParticoesRegistrosService); sem isso o
+        // ddl-auto=update não a reconhece como tabela e tenta criá-la de novo
+        hibernateProperties.put("hibernate.hbm2ddl.extra_physical_table_types", "PARTITIONED TABLE");
+
+        // Com réplicas, cada transação pede a própria conexão ao roteador. No padrão (HOLD) a sessão
+        // aberta pelo open-in-view guardaria a primeira conexão da requisição, réplica ou primário.
+        if (!replicas.isBlank()) {
+            hibernateProperties.put("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        }
+
+        // Cache de segundo nível (entidades com @Cache) e de consultas marcadas como cacheáveis.
+        // READ_WRITE atualiza/invalida as entradas no commit de cada save ou delete.
+        if (cacheHabilitado) {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", true);
+            hibernateProperties.put("hibernate.cache.use_query_cache", true);
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", cacheManagerHibernate);
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.Caminhar.api.infra.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Métricas do Micrometer, publicadas em /actuator/prometheus. Além das que o Spring Boot já registra
+// (http.server.requests, spring.data.repository.invocations para cada método de repositório e
+// hikaricp.connections.* com a espera por conexão), há o @Timed("api.servico") nos services e os
+// medidores api.seguranca.* no SecurityFilter.
+@Configuration
+@PropertySource("classpath:metricas.properties")
+public class MetricasConfig {
+}
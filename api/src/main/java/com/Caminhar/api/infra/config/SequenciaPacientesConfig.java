@@ -0,0 +1,52 @@
+package com.Caminhar.api.infra.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// A tabela pacientes nasceu com id IDENTITY. Ao trocar para a sequence pacientes_seq,
+// o ddl-auto cria a sequence começando em 1; aqui ela é alinhada com o maior id existente
+@Component
+public class SequenciaPacientesConfig implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenciaPacientesConfig.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isPostgres()) return;
+
+        try {
+            Long valor = jdbcTemplate.queryForObject("""
+                    SELECT setval('pacientes_seq', GREATEST(
+                            (SELECT COALESCE(MAX(id), 1) FROM pacientes),
+                            (SELECT last_value FROM pacientes_seq)))
+                    """, Long.class);
+            logger.info("Sequence pacientes_seq alinhada em {}", valor);
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível alinhar a sequence pacientes_seq: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
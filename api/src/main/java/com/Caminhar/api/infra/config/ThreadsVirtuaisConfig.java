@@ -0,0 +1,57 @@
+package com.Caminhar.api.infra.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Modo opcional de execução em threads virtuais (spring.threads.virtual.enabled=true).
+// O Spring Boot já coloca o Tomcat, o @Scheduled e os executores nesse modo; aqui fica só
+// o que muda para a aplicação: sem o limite de 200 threads do Tomcat, quem limita a
+// concorrência com o banco passa a ser o pool de conexões.
+//
+// No JDK 21 uma thread virtual que bloqueia dentro de synchronized fica presa à thread portadora.
+// Trava que fica segura durante JDBC ou disco deve ser um ReentrantLock; synchronized só para
+// trechos curtos em memória.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadsVirtuaisConfig.class);
+
+    @Bean
+    static BeanPostProcessor dimensionamentoPoolConexoes(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) return bean;
+
+                // Quem configurou o pool explicitamente continua valendo
+                if (!env.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+                    int tamanho = env.getProperty("api.threads-virtuais.pool-conexoes", Integer.class, 20);
+                    hikari.setMaximumPoolSize(tamanho);
+                    // Pool fixo: uma rajada não paga a abertura de conexões novas
+                    hikari.setMinimumIdle(tamanho);
+                }
+                if (!env.containsProperty("spring.datasource.hikari.connection-timeout")) {
+                    // Milhares de threads podem ficar na fila do pool; melhor falhar cedo do que esperar 30 s
+                    hikari.setConnectionTimeout(env.getProperty("api.threads-virtuais.espera-conexao-ms", Long.class, 5000L));
+                }
+
+                logger.info("Threads virtuais ativas: pool de conexões com {} conexões, espera máxima de {} ms",
+                        hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "api.threads-virtuais.diagnostico-pinagem", havingValue = "true", matchIfMissing = true)
+    DiagnosticoPinagem diagnosticoPinagem() {
+        return new DiagnosticoPinagem();
+    }
+}
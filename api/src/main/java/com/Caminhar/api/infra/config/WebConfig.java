@@ -0,0 +1,45 @@
+package com.Caminhar.api.infra.config;
+
+import com.Caminhar.api.infra.web.EtagInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private EtagInterceptor etagInterceptor;
+
+    @Value("${api.compressao.habilitada:true}")
+    private boolean compressaoHabilitada;
+
+    // Respostas menores que isso não compensam o custo do gzip
+    @Value("${api.compressao.tamanho-minimo:1KB}")
+    private DataSize tamanhoMinimo;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(etagInterceptor);
+    }
+
+    // gzip das respostas JSON, NDJSON e CSV para quem manda Accept-Encoding: gzip
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressao() {
+        return factory -> {
+            Compression compression = new Compression();
+            compression.setEnabled(compressaoHabilitada);
+            compression.setMinResponseSize(tamanhoMinimo);
+            compression.setMimeTypes(new String[]{
+                    "application/json", "application/x-ndjson", "text/csv", "text/plain"});
+            factory.setCompression(compression);
+        };
+    }
+}
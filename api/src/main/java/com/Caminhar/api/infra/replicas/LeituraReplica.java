@@ -0,0 +1,15 @@
+package com.Caminhar.api.infra.replicas;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Executa o método numa transação somente leitura que pode ser atendida por uma réplica
+// (quando api.replicas.urls está configurado). Só para leituras que aceitam um atraso de
+// até api.replicas.atraso-maximo-ms; quem escreveu há pouco continua lendo do primário, e as
+// requisições com ETag (@Versionado) só vão para réplicas que já têm as escritas contadas nela.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeituraReplica {
+}
@@ -0,0 +1,65 @@
+package com.Caminhar.api.infra.replicas;
+
+import jakarta.persistence.EntityManager;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+// Abre a transação dos métodos @LeituraReplica e marca a thread para o RoteamentoDataSource.
+// A transação é aberta aqui (e não por um @Transactional ao lado) para a marcação e o modo de
+// cache valerem exatamente para ela; chamada dentro de uma transação já aberta só participa dela.
+@Aspect
+@Component
+public class LeituraReplicaAspect {
+
+    private static final ThreadLocal<Boolean> EM_LEITURA = new ThreadLocal<>();
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${api.replicas.urls:}")
+    private String replicas;
+
+    static boolean emLeitura() {
+        return EM_LEITURA.get() != null;
+    }
+
+    @Around("@annotation(com.Caminhar.api.infra.replicas.LeituraReplica)")
+    public Object executar(ProceedingJoinPoint joinPoint) throws Throwable {
+        DefaultTransactionDefinition definicao = new DefaultTransactionDefinition();
+        definicao.setReadOnly(true);
+        definicao.setName(joinPoint.getSignature().toShortString());
+
+        TransactionStatus status = transactionManager.getTransaction(definicao);
+        boolean marcou = status.isNewTransaction() && !emLeitura();
+        if (marcou) {
+            EM_LEITURA.set(Boolean.TRUE);
+            // Uma réplica atrasada poria no cache de segundo nível uma versão antiga da entidade,
+            // que continuaria sendo servida depois de a réplica alcançar o primário
+            if (!replicas.isBlank()) entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+
+        Object retorno;
+        try {
+            retorno = joinPoint.proceed();
+        } catch (Throwable e) {
+            transactionManager.rollback(status);
+            throw e;
+        } finally {
+            if (marcou) EM_LEITURA.remove();
+        }
+        transactionManager.commit(status);
+        return retorno;
+    }
+}
@@ -0,0 +1,288 @@
+package com.Caminhar.api.infra.replicas;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Acompanha o atraso das réplicas e escolhe a que atende cada leitura.
+//
+// O atraso é medido por uma marca d'água da versaoSync (a mesma do /sync): a cada verificação o
+// monitor grava no primário, em replicacao_marca, o SyncService.limite() (versão abaixo da qual
+// todas as escritas já confirmaram) e anota a marca e a hora. A réplica aplica as transações na
+// ordem do commit, então a marca que ela enxerga garante todas as versões até ali; o MAX(versao_sync)
+// não garante, porque as versões são reservadas em blocos e confirmam fora de ordem. O atraso de
+// uma réplica é há quanto tempo o primário tem uma marca que ela ainda não tem. Réplica fora do ar
+// ou com atraso acima de api.replicas.atraso-maximo-ms sai do rodízio e só volta depois de alcançar
+// a marca gravada na verificação anterior.
+//
+// Leitura da própria escrita: o SyncService avisa a versão de cada escrita confirmada, guardada por
+// usuário; as leituras desse usuário só vão para réplicas cuja marca já cobre essa versão. Vale por instância.
+// Do mesmo jeito, o EtagInterceptor guarda na requisição a maior versão confirmada quando calcula a ETag,
+// e a leitura só vai para réplica que já a tenha: dados velhos nunca saem com a ETag nova.
+@Component
+@ConditionalOnExpression(ReplicasConfig.ATIVO)
+public class MonitorReplicas {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    private static final String CRIAR_MARCA = "CREATE TABLE IF NOT EXISTS replicacao_marca (id INT PRIMARY KEY, versao BIGINT NOT NULL)";
+    private static final String GRAVAR_MARCA = "UPDATE replicacao_marca SET versao = ? WHERE id = 1";
+    private static final String INSERIR_MARCA = "INSERT INTO replicacao_marca (id, versao) VALUES (1, ?)";
+    private static final String LER_MARCA = "SELECT COALESCE(MAX(versao), -1) FROM replicacao_marca";
+
+    // Com uma réplica parada por muito tempo as amostras se acumulam; além disso o atraso fica desconhecido
+    private static final int MAX_AMOSTRAS = 3600;
+
+    private static class Replica {
+        final String nome;
+        final HikariDataSource dataSource;
+        final JdbcTemplate jdbcTemplate;
+        volatile boolean disponivel;
+        volatile boolean emDia;
+        // Última marca lida na réplica; mantida enquanto ela está fora do ar
+        volatile long marca = -1;
+        volatile long atrasoMs;
+
+        Replica(String nome, HikariDataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+
+    @Autowired
+    private HikariDataSource primario;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${api.replicas.usuario:}")
+    private String usuario;
+
+    @Value("${api.replicas.senha:}")
+    private String senha;
+
+    @Value("${api.replicas.pool:10}")
+    private int tamanhoPool;
+
+    @Value("${api.replicas.atraso-maximo-ms:5000}")
+    private long atrasoMaximoMs;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private JdbcTemplate jdbcPrimario;
+
+    // Marca d'água das escritas (SyncService.limite), registrada pelo SyncService na subida
+    private volatile LongSupplier limite;
+
+    // [instante, marca do primário], só quando a marca muda
+    private final ArrayDeque<long[]> amostras = new ArrayDeque<>();
+
+    // Maior marca já descartada das amostras: réplica abaixo dela tem atraso desconhecido
+    private long descartadaAte = -1;
+
+    // Marca gravada na verificação anterior; quem saiu do rodízio precisa chegar nela para voltar
+    private long marcaAnterior = -1;
+
+    private final Map<String, Long> ultimaEscrita = new ConcurrentHashMap<>();
+
+    private final AtomicInteger rodizio = new AtomicInteger();
+
+    // Maior versão já confirmada por escrita nesta instância
+    private final AtomicLong ultimaConfirmada = new AtomicLong(-1);
+
+    // Atributo da requisição com a versão mínima que a réplica precisa ter (ver EtagInterceptor)
+    public static final String VERSAO_MINIMA = MonitorReplicas.class.getName() + ".VERSAO_MINIMA";
+
+    // Verificações não se sobrepõem. Não é synchronized para não fixar a thread virtual durante as consultas
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Counter leiturasReplica;
+    private Counter leiturasPrimario;
+
+    @PostConstruct
+    void init() {
+        jdbcPrimario = new JdbcTemplate(primario);
+        jdbcPrimario.execute(CRIAR_MARCA);
+
+        for (String url : urls) {
+            if (url.isBlank()) continue;
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (replicas.size() + 1));
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setUsername(usuario.isBlank() ? dataSourceProperties.determineUsername() : usuario);
+            dataSource.setPassword(usuario.isBlank() ? dataSourceProperties.determinePassword() : senha);
+            dataSource.setMaximumPoolSize(tamanhoPool);
+            dataSource.setReadOnly(true);
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.add(new Replica(dataSource.getPoolName(), dataSource));
+        }
+
+        for (Replica replica : replicas) {
+            Gauge.builder("api.replicas.atraso", replica, r -> r.disponivel ? r.atrasoMs : -1)
+                    .description("Atraso da réplica em ms (-1: fora do ar)")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.nome)
+                    .register(meterRegistry);
+        }
+        leiturasReplica = Counter.builder("api.replicas.leituras").tag("destino", "replica").register(meterRegistry);
+        leiturasPrimario = Counter.builder("api.replicas.leituras").tag("destino", "primario").register(meterRegistry);
+
+        logger.info("Leituras em réplica habilitadas: {} réplica(s), atraso máximo de {} ms", replicas.size(), atrasoMaximoMs);
+    }
+
+    // Destinos do RoteamentoDataSource, pelo nome devolvido em escolher()
+    Map<String, DataSource> dataSources() {
+        Map<String, DataSource> porNome = new LinkedHashMap<>();
+        for (Replica replica : replicas) porNome.put(replica.nome, replica.dataSource);
+        return porNome;
+    }
+
+    // Réplica para a leitura atual, em rodízio entre as que estão em dia; null = primário
+    String escolher() {
+        String usuarioAtual = usuarioAtual();
+        Long daEscrita = usuarioAtual != null ? ultimaEscrita.get(usuarioAtual) : null;
+        Long daRequisicao = minimaDaRequisicao();
+        Long minima = daEscrita == null ? daRequisicao
+                : daRequisicao == null ? daEscrita : Long.valueOf(Math.max(daEscrita, daRequisicao));
+        int quantidade = replicas.size();
+        int inicio = Math.floorMod(rodizio.getAndIncrement(), quantidade);
+
+        for (int i = 0; i < quantidade; i++) {
+            Replica replica = replicas.get((inicio + i) % quantidade);
+            if (replica.emDia && (minima == null || replica.marca >= minima)) {
+                leiturasReplica.increment();
+                return replica.nome;
+            }
+        }
+        leiturasPrimario.increment();
+        return null;
+    }
+
+    public void acompanhar(LongSupplier limite) {
+        this.limite = limite;
+    }
+
+    public long ultimaConfirmada() {
+        return ultimaConfirmada.get();
+    }
+
+    public void escritaConfirmada(long versao) {
+        ultimaConfirmada.accumulateAndGet(versao, Math::max);
+        String usuarioAtual = usuarioAtual();
+        if (usuarioAtual != null) ultimaEscrita.merge(usuarioAtual, versao, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${api.replicas.verificacao-ms:1000}")
+    public void verificar() {
+        if (limite == null) return;
+        lock.lock();
+        try {
+            long agora = System.currentTimeMillis();
+            long marcaPrimario = limite.getAsLong();
+            try {
+                if (jdbcPrimario.update(GRAVAR_MARCA, marcaPrimario) == 0) jdbcPrimario.update(INSERIR_MARCA, marcaPrimario);
+            } catch (DataAccessException e) {
+                logger.warn("Não foi possível gravar a marca no primário: {}", e.getMessage());
+                return;
+            }
+            if (amostras.isEmpty() || amostras.peekLast()[1] < marcaPrimario) {
+                amostras.addLast(new long[]{agora, marcaPrimario});
+                if (amostras.size() > MAX_AMOSTRAS) descartadaAte = amostras.pollFirst()[1];
+            }
+
+            for (Replica replica : replicas) {
+                try {
+                    replica.marca = replica.jdbcTemplate.queryForObject(LER_MARCA, Long.class);
+                    replica.disponivel = true;
+                } catch (DataAccessException e) {
+                    if (replica.disponivel || replica.marca < 0) {
+                        logger.warn("Réplica {} fora do ar: {}", replica.nome, e.getMessage());
+                    }
+                    replica.disponivel = false;
+                    replica.emDia = false;
+                    continue;
+                }
+
+                replica.atrasoMs = atraso(replica.marca, agora);
+                // Dentro do rodízio basta o atraso estar no limite; para voltar, precisa ter alcançado
+                boolean emDia = replica.atrasoMs <= atrasoMaximoMs && (replica.emDia || replica.marca >= marcaAnterior);
+                if (emDia != replica.emDia) {
+                    if (emDia) logger.info("Réplica {} em dia, volta ao rodízio", replica.nome);
+                    else logger.warn("Réplica {} com {} ms de atraso, leituras vão para o primário", replica.nome, replica.atrasoMs);
+                }
+                replica.emDia = emDia;
+            }
+            marcaAnterior = marcaPrimario;
+
+            // O que todas as réplicas já têm, inclusive as fora do ar pela última marca lida, não
+            // precisa mais ser lembrado
+            long alcancada = Long.MAX_VALUE;
+            for (Replica replica : replicas) alcancada = Math.min(alcancada, replica.marca);
+            long menor = alcancada;
+            while (amostras.size() > 1 && amostras.peekFirst()[1] <= menor) amostras.pollFirst();
+            ultimaEscrita.values().removeIf(versao -> versao <= menor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Há quanto tempo o primário tem uma marca acima da que a réplica já aplicou
+    private long atraso(long marcaReplica, long agora) {
+        if (marcaReplica < descartadaAte) return Long.MAX_VALUE;
+        for (long[] amostra : amostras) {
+            if (amostra[1] > marcaReplica) return agora - amostra[0];
+        }
+        return 0;
+    }
+
+    private static Long minimaDaRequisicao() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        return requisicao != null ? (Long) requisicao.getAttribute(VERSAO_MINIMA, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+
+    private static String usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null ? autenticacao.getName() : null;
+    }
+
+    @PreDestroy
+    void fechar() {
+        for (Replica replica : replicas) replica.dataSource.close();
+    }
+}
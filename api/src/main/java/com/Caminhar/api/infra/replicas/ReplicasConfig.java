@@ -0,0 +1,43 @@
+package com.Caminhar.api.infra.replicas;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Leituras em réplicas, ligadas por api.replicas.urls (lista de URLs JDBC separadas por vírgula;
+// usuário e senha do primário, salvo api.replicas.usuario/senha). Sem a propriedade, o DataSource
+// é o do Spring Boot, como sempre.
+//
+// Para testar localmente: duas bases H2 em memória, por exemplo
+//   spring.datasource.url=jdbc:h2:mem:primario;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE
+//   api.replicas.urls=jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE
+// (o esquema da réplica precisa ser criado à parte: o ddl-auto só roda no primário). A tabela
+// replicacao_marca, criada pelo MonitorReplicas no primário, também precisa chegar às réplicas.
+@Configuration
+@ConditionalOnExpression(ReplicasConfig.ATIVO)
+public class ReplicasConfig {
+
+    static final String ATIVO = "!'${api.replicas.urls:}'.isBlank()";
+
+    // O pool do primário continua configurável por spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Com o proxy, a conexão física só é pedida ao roteador no primeiro comando da transação,
+    // quando o Spring já marcou se ela é somente leitura
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primario, MonitorReplicas monitor) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, monitor));
+    }
+}
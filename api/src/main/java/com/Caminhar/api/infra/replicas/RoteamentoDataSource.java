@@ -0,0 +1,34 @@
+package com.Caminhar.api.infra.replicas;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Primário para tudo, menos as transações somente leitura abertas por @LeituraReplica, que vão
+// para a réplica indicada pelo MonitorReplicas. Os readOnly implícitos dos repositórios do Spring Data
+// (um findById no meio de uma edição, por exemplo) continuam no primário.
+class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    private final MonitorReplicas monitor;
+
+    RoteamentoDataSource(DataSource primario, MonitorReplicas monitor) {
+        this.monitor = monitor;
+        Map<Object, Object> destinos = new HashMap<>(monitor.dataSources());
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    // Chave nula = primário
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!LeituraReplicaAspect.emLeitura() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        return monitor.escolher();
+    }
+}
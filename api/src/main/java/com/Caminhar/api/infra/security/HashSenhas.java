@@ -0,0 +1,72 @@
+package com.Caminhar.api.infra.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// O BCrypt é CPU pura e lento de propósito. Ele roda num pool próprio e limitado, fora das
+// threads do Tomcat: uma rajada de logins disputa só esses núcleos e, com a fila cheia, o
+// login é recusado na hora (RejectedExecutionException) em vez de atrasar o resto da API.
+@Component
+public class HashSenhas {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // 0 = metade dos núcleos
+    @Value("${api.security.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${api.security.bcrypt.fila:64}")
+    private int fila;
+
+    private ThreadPoolExecutor executor;
+
+    // Usuário inexistente também paga um BCrypt, para o tempo de resposta não revelar quem existe
+    private String hashFicticio;
+
+    @PostConstruct
+    void iniciar() {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        hashFicticio = passwordEncoder.encode("senha-ficticia");
+    }
+
+    @PreDestroy
+    void parar() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<Boolean> verificar(String senha, String hash) {
+        if (hash == null) {
+            return CompletableFuture.supplyAsync(() -> {
+                passwordEncoder.matches(senha, hashFicticio);
+                return false;
+            }, executor);
+        }
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(senha, hash), executor);
+    }
+
+    public CompletableFuture<String> gerarHash(String senha) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(senha), executor);
+    }
+}
@@ -0,0 +1,89 @@
+package com.Caminhar.api.infra.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Balde de tokens por chave (login ou IP). As chaves ficam num mapa dividido em faixas,
+// cada uma com seu lock, para tentativas de chaves diferentes quase nunca disputarem o
+// mesmo lock. Cada faixa guarda no máximo maxChaves / FAIXAS baldes e descarta o usado há
+// mais tempo, para uma enxurrada de logins inventados não crescer a memória sem limite.
+public class LimitadorTaxa {
+
+    private static final int FAIXAS = 64;
+
+    private static final class Balde {
+        double tokens;
+        long atualizadoEm;
+    }
+
+    private static final class Faixa {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Balde> baldes;
+
+        Faixa(int maxChaves) {
+            baldes = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Balde> maisAntigo) {
+                    return size() > maxChaves;
+                }
+            };
+        }
+    }
+
+    private final Faixa[] faixas = new Faixa[FAIXAS];
+    private final double capacidade;
+    private final double tokensPorNano;
+
+    public LimitadorTaxa(int capacidade, double recargaPorMinuto, int maxChaves) {
+        this.capacidade = capacidade;
+        this.tokensPorNano = recargaPorMinuto / 60e9;
+        int porFaixa = Math.max(1, maxChaves / FAIXAS);
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new Faixa(porFaixa);
+        }
+    }
+
+    // Consome um token; devolve 0 se liberou ou os segundos até o próximo token
+    public long tentar(String chave) {
+        Faixa faixa = faixa(chave);
+        faixa.lock.lock();
+        try {
+            long agora = System.nanoTime();
+            Balde balde = faixa.baldes.get(chave);
+            if (balde == null) {
+                balde = new Balde();
+                balde.tokens = capacidade;
+                balde.atualizadoEm = agora;
+                faixa.baldes.put(chave, balde);
+            } else {
+                balde.tokens = Math.min(capacidade, balde.tokens + (agora - balde.atualizadoEm) * tokensPorNano);
+                balde.atualizadoEm = agora;
+            }
+
+            if (balde.tokens >= 1) {
+                balde.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - balde.tokens) / tokensPorNano / 1e9));
+        } finally {
+            faixa.lock.unlock();
+        }
+    }
+
+    // Esquece a chave, ex.: depois de um login bem-sucedido
+    public void liberar(String chave) {
+        Faixa faixa = faixa(chave);
+        faixa.lock.lock();
+        try {
+            faixa.baldes.remove(chave);
+        } finally {
+            faixa.lock.unlock();
+        }
+    }
+
+    private Faixa faixa(String chave) {
+        int h = chave.hashCode();
+        return faixas[(h ^ (h >>> 16)) & (FAIXAS - 1)];
+    }
+}
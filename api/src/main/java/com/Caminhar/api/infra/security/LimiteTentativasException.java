@@ -0,0 +1,14 @@
+package com.Caminhar.api.infra.security;
+
+import lombok.Getter;
+
+@Getter
+public class LimiteTentativasException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public LimiteTentativasException(long segundosParaNovaTentativa) {
+        super("Muitas tentativas de login");
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+}
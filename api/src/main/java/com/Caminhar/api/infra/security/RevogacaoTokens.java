@@ -0,0 +1,176 @@
+package com.Caminhar.api.infra.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Tokens revogados, por jti, sem ida ao banco no SecurityFilter.
+//
+// Os jtis ficam em janelas de tempo pela expiração do token: cada janela tem um filtro de
+// Bloom (a checagem de toda requisição, poucos bits lidos) e o conjunto exato, consultado só
+// quando o filtro acusa. Um token nunca é recusado por falso positivo. Quando todos os tokens
+// de uma janela já expiraram ela é descartada inteira, então a memória acompanha só as
+// revogações ainda relevantes. O conjunto é gravado periodicamente em arquivo e relido na subida.
+@Component
+public class RevogacaoTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevogacaoTokens.class);
+
+    private static final class Janela {
+        final long fim;
+        final AtomicLongArray bits;
+        final int totalBits;
+        final int funcoes;
+        final Set<String> jtis = ConcurrentHashMap.newKeySet();
+
+        Janela(long fim, int capacidade) {
+            this.fim = fim;
+            // Dimensionado para ~1% de falsos positivos com a capacidade esperada
+            this.totalBits = Math.max(64, (int) Math.ceil(-capacidade * Math.log(0.01) / (Math.log(2) * Math.log(2))));
+            this.funcoes = Math.max(1, (int) Math.round((double) totalBits / capacidade * Math.log(2)));
+            this.bits = new AtomicLongArray((totalBits + 63) / 64);
+        }
+
+        boolean adicionar(String jti) {
+            long[] h = hashes(jti);
+            for (int i = 0; i < funcoes; i++) {
+                int bit = posicao(h, i);
+                long mascara = 1L << (bit & 63);
+                int indice = bit >>> 6;
+                long atual;
+                do {
+                    atual = bits.get(indice);
+                } while ((atual & mascara) == 0 && !bits.compareAndSet(indice, atual, atual | mascara));
+            }
+            return jtis.add(jti);
+        }
+
+        boolean contem(String jti) {
+            long[] h = hashes(jti);
+            for (int i = 0; i < funcoes; i++) {
+                int bit = posicao(h, i);
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) return false;
+            }
+            return jtis.contains(jti);
+        }
+
+        private int posicao(long[] h, int i) {
+            return (int) Long.remainderUnsigned(h[0] + i * h[1], totalBits);
+        }
+    }
+
+    @Value("${api.security.revogacao.janela-minutos:60}")
+    private long janelaMinutos;
+
+    @Value("${api.security.revogacao.capacidade-por-janela:10000}")
+    private int capacidadePorJanela;
+
+    // Vazio = só em memória (revogações se perdem ao reiniciar)
+    @Value("${api.security.revogacao.arquivo:revogacoes.txt}")
+    private String arquivo;
+
+    private final Map<Long, Janela> janelas = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean alterado = new AtomicBoolean();
+
+    @PostConstruct
+    void carregar() throws IOException {
+        if (arquivo.isBlank() || !Files.exists(Path.of(arquivo))) return;
+
+        long agora = Instant.now().getEpochSecond();
+        int carregados = 0;
+        for (String linha : Files.readAllLines(Path.of(arquivo), StandardCharsets.UTF_8)) {
+            int espaco = linha.indexOf(' ');
+            if (espaco <= 0) continue;
+            long expiraEm = Long.parseLong(linha.substring(espaco + 1).trim());
+            if (expiraEm <= agora) continue;
+            janela(expiraEm).adicionar(linha.substring(0, espaco));
+            carregados++;
+        }
+        logger.info("{} revogações de token carregadas de {}", carregados, arquivo);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        gravar();
+    }
+
+    // Devolve false se o token já estava revogado (ou já expirou)
+    public boolean revogar(String jti, Instant expiraEm) {
+        if (jti == null || expiraEm == null || !expiraEm.isAfter(Instant.now())) return false;
+        boolean novo = janela(expiraEm.getEpochSecond()).adicionar(jti);
+        alterado.set(true);
+        return novo;
+    }
+
+    public boolean revogado(String jti, Instant expiraEm) {
+        // Tokens sem jti são anteriores à revogação e expiram sozinhos
+        if (jti == null || expiraEm == null) return false;
+        Janela janela = janelas.get(chave(expiraEm.getEpochSecond()));
+        return janela != null && janela.contem(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.revogacao.gravacao-ms:10000}")
+    public void gravar() {
+        long agora = Instant.now().getEpochSecond();
+        if (janelas.values().removeIf(janela -> janela.fim <= agora)) alterado.set(true);
+
+        if (arquivo.isBlank() || !alterado.getAndSet(false)) return;
+
+        Path destino = Path.of(arquivo).toAbsolutePath();
+        try {
+            Path temporario = Files.createTempFile(destino.getParent(), "revogacoes", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+                for (Janela janela : janelas.values()) {
+                    for (String jti : janela.jtis) {
+                        // O último segundo da janela basta como expiração: cai na mesma janela na leitura
+                        writer.write(jti + " " + (janela.fim - 1));
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            alterado.set(true);
+            logger.error("Erro ao gravar as revogações de token em {}", destino, e);
+        }
+    }
+
+    private Janela janela(long expiraEm) {
+        long chave = chave(expiraEm);
+        return janelas.computeIfAbsent(chave, c -> new Janela((c + 1) * janelaMinutos * 60, capacidadePorJanela));
+    }
+
+    private long chave(long expiraEm) {
+        return expiraEm / (janelaMinutos * 60);
+    }
+
+    // Os jtis emitidos aqui são UUIDs aleatórios: os próprios bits servem de hash
+    private static long[] hashes(String jti) {
+        try {
+            UUID uuid = UUID.fromString(jti);
+            return new long[]{uuid.getMostSignificantBits(), uuid.getLeastSignificantBits() | 1};
+        } catch (IllegalArgumentException e) {
+            long h = jti.hashCode() * 0x9E3779B97F4A7C15L;
+            return new long[]{h ^ (h >>> 29), (h * 0xBF58476D1CE4E5B9L) | 1};
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.Caminhar.api.infra.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,12 +18,15 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -26,6 +35,10 @@ public class SecurityConfiguration {
     @Autowired
     private SecurityFilter securityFilter;
 
+    // Redes de onde o Prometheus pode coletar sem JWT (atrás de proxy, vale o IP do proxy)
+    @Value("${api.metricas.redes:127.0.0.1/32,::1/128}")
+    private List<String> redesMetricas;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
@@ -34,7 +47,10 @@ public class SecurityConfiguration {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
 
-                        .requestMatchers(HttpMethod.POST, "/auth/login", "/auth/register").permitAll()
+                        // Redespachos assíncronos (SSE do /events) já foram autorizados na requisição original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        .requestMatchers(HttpMethod.POST, "/auth/login", "/auth/register", "/auth/refresh", "/auth/logout").permitAll()
 
                         // ============================
                         // REGRAS DE ACESSO PACIENTES
@@ -42,6 +58,7 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.GET, "/pacientes/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/pacientes/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/pacientes/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/pacientes/**").hasAnyRole("USER", "ADMIN")
 
                         // DELETE apenas ADMIN
                         .requestMatchers(HttpMethod.DELETE, "/pacientes/**").hasRole("ADMIN")
@@ -52,10 +69,52 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.GET, "/registro-consultas/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/registro-consultas/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/registro-consultas/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/registro-consultas/**").hasAnyRole("USER", "ADMIN")
 
                         // DELETE apenas ADMIN
                         .requestMatchers(HttpMethod.DELETE, "/registro-consultas/**").hasRole("ADMIN")
 
+                        // ============================
+                        // DASHBOARD
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/dashboard/**").hasAnyRole("USER", "ADMIN")
+
+                        // ============================
+                        // BUSCA
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/busca/**").hasAnyRole("USER", "ADMIN")
+
+                        // ============================
+                        // SYNC
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/sync/**").hasAnyRole("USER", "ADMIN")
+
+                        // ============================
+                        // CACHE
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/cache/**").hasRole("ADMIN")
+
+                        // ============================
+                        // EVENTOS (SSE)
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/events").hasAnyRole("USER", "ADMIN")
+
+                        // ============================
+                        // EXPORTAÇÃO (base inteira: só ADMIN)
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/exportacao/**").hasRole("ADMIN")
+
+                        // ============================
+                        // AUDITORIA
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/auditoria/**").hasRole("ADMIN")
+
+                        // ============================
+                        // MÉTRICAS
+                        // ============================
+                        .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").access(acessoMetricas())
+
                         // TUDO QUE SOBRAR É BLOQUEADO
                         .anyRequest().denyAll()
                 )
@@ -65,6 +124,15 @@ public class SecurityConfiguration {
     }
 
 
+    // Coleta liberada para as redes configuradas ou para um ADMIN autenticado
+    private AuthorizationManager<RequestAuthorizationContext> acessoMetricas() {
+        List<IpAddressMatcher> redes = redesMetricas.stream().map(IpAddressMatcher::new).toList();
+        AuthorizationManager<RequestAuthorizationContext> porRede = (authentication, contexto) ->
+                new AuthorizationDecision(redes.stream().anyMatch(rede -> rede.matches(contexto.getRequest())));
+        return AuthorizationManagers.anyOf(porRede, AuthorityAuthorizationManager.hasRole("ADMIN"));
+    }
+
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -78,8 +146,9 @@ public class SecurityConfiguration {
 
         ));
 
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "If-None-Match"));
+        configuration.setExposedHeaders(Arrays.asList("Retry-After", "ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -92,8 +161,9 @@ public class SecurityConfiguration {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    // Custo do BCrypt (2^forca rodadas). Hashes gravados com outro custo continuam válidos.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${api.security.bcrypt.forca:10}") int forca) {
+        return new BCryptPasswordEncoder(forca);
     }
 }
\ No newline at end of file
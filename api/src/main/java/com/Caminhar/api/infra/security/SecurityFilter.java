@@ -3,8 +3,11 @@ package com.Caminhar.api.infra.security;
 
 import com.Caminhar.api.infra.tokenService.TokenService;
 import com.Caminhar.api.repository.UserRepository;
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,7 +24,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -31,45 +35,108 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(SecurityFilter.class);
 
+    private Timer verificacaoJwt;
+    private Counter cacheAcerto;
+    private Counter cacheFalta;
+    private Counter tokenInvalido;
+    private Counter usuarioInexistente;
+    private Counter tokenRevogado;
+
+    // A busca do usuário já aparece em spring.data.repository.invocations (UserRepository.findByLogin)
+    @PostConstruct
+    void registrarMetricas() {
+        verificacaoJwt = Timer.builder("api.seguranca.jwt.verificacao")
+                .description("Verificação da assinatura e das claims do JWT (só nas faltas do cache)")
+                .register(meterRegistry);
+        cacheAcerto = Counter.builder("api.seguranca.token.cache").tag("resultado", "acerto").register(meterRegistry);
+        cacheFalta = Counter.builder("api.seguranca.token.cache").tag("resultado", "falta").register(meterRegistry);
+        tokenInvalido = Counter.builder("api.seguranca.token.recusado").tag("motivo", "invalido").register(meterRegistry);
+        usuarioInexistente = Counter.builder("api.seguranca.token.recusado").tag("motivo", "usuario").register(meterRegistry);
+        tokenRevogado = Counter.builder("api.seguranca.token.recusado").tag("motivo", "revogado").register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String requestURI = request.getRequestURI();
-        logger.info("Requisição recebida: {}", requestURI);
-
-        var authHeader = request.getHeader("Authorization");
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            var token = authHeader.replace("Bearer ", "");
-            var login = tokenService.validateToken(token);
+        // Volume e latência por rota ficam no http.server.requests; o log por requisição é só para depuração
+        if (logger.isDebugEnabled()) {
+            logger.debug("Requisição recebida: {}", request.getRequestURI());
+        }
 
-            if (login.isEmpty()) {
-                logger.error("Token inválido ou expirado");
-                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token inválido ou expirado");
-                return;
+        var token = token(request);
+
+        if (token != null) {
+
+            TokenCache.Entrada entrada = tokenCache.buscar(token);
+            if (entrada != null) {
+                cacheAcerto.increment();
+            } else {
+                cacheFalta.increment();
+                // Só chega aqui na primeira requisição com o token: decodifica uma vez e vai ao banco uma vez
+                DecodedJWT decodedJWT = verificacaoJwt.record(() -> tokenService.verificar(token));
+
+                if (decodedJWT == null) {
+                    tokenInvalido.increment();
+                    logger.debug("Token inválido ou expirado");
+                    response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token inválido ou expirado");
+                    return;
+                }
+
+                String login = decodedJWT.getSubject();
+                UserDetails user = userRepository.findByLogin(login);
+                if (user == null) {
+                    usuarioInexistente.increment();
+                    logger.warn("Usuário não encontrado para o token: {}", login);
+                    response.sendError(HttpServletResponse.SC_FORBIDDEN, "Usuário não encontrado");
+                    return;
+                }
+
+                String role = decodedJWT.getClaim("role").asString();
+                List<GrantedAuthority> authorities = List.of(
+                        new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+
+                entrada = new TokenCache.Entrada(user, authorities, decodedJWT.getId(), decodedJWT.getExpiresAtAsInstant());
+                tokenCache.guardar(token, entrada);
             }
 
-            UserDetails user = userRepository.findByLogin(login);
-            if (user == null) {
-                logger.error("Usuário não encontrado para o token: {}", login);
-                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Usuário não encontrado");
+            // Conferido também nos acertos do cache: a revogação vale já na requisição seguinte
+            if (revogacaoTokens.revogado(entrada.jti(), entrada.expiraEm())) {
+                tokenRevogado.increment();
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token revogado");
                 return;
             }
 
-            DecodedJWT decodedJWT = JWT.decode(token);
-            String role = decodedJWT.getClaim("role").asString();
-            var authorities = Collections.singletonList(
-                    new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
-
-            var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
+            var authentication = new UsernamePasswordAuthenticationToken(entrada.usuario(), null, entrada.authorities());
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         // Sempre continua – o Spring Security decide se a rota precisa de auth
         filterChain.doFilter(request, response);
     }
+
+    private static String token(HttpServletRequest request) {
+        var authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.replace("Bearer ", "");
+        }
+        // Só no /events: o EventSource do navegador não deixa mandar cabeçalhos.
+        // Convém tirar a query string dos logs de acesso do proxy para essa rota.
+        if ((request.getContextPath() + "/events").equals(request.getRequestURI())) {
+            return request.getParameter("access_token");
+        }
+        return null;
+    }
 }
@@ -0,0 +1,77 @@
+package com.Caminhar.api.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Cache de token já verificado -> usuário autenticado, para o SecurityFilter
+// não refazer a verificação do JWT nem ir ao banco a cada requisição
+@Component
+public class TokenCache {
+
+    public record Entrada(UserDetails usuario, List<GrantedAuthority> authorities, String jti, Instant expiraEm) {
+    }
+
+    @Value("${api.security.token-cache.tamanho:10000}")
+    private long tamanho;
+
+    @Value("${api.security.token-cache.ttl-segundos:300}")
+    private long ttlSegundos;
+
+    private Cache<String, Entrada> cache;
+
+    @PostConstruct
+    void init() {
+        Duration ttl = Duration.ofSeconds(ttlSegundos);
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanho)
+                .expireAfter(new Expiry<String, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entrada entrada, long agora) {
+                        if (entrada.expiraEm() == null) return ttl.toNanos();
+
+                        // Nunca guarda a entrada além da expiração do próprio token
+                        Duration ateExpirar = Duration.between(Instant.now(), entrada.expiraEm());
+                        return Math.max(0, Math.min(ttl.toNanos(), ateExpirar.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Entrada entrada, long agora, long duracaoAtual) {
+                        return expireAfterCreate(token, entrada, agora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Entrada entrada, long agora, long duracaoAtual) {
+                        return duracaoAtual;
+                    }
+                })
+                .build();
+    }
+
+    public Entrada buscar(String token) {
+        return cache.getIfPresent(token);
+    }
+
+    public void guardar(String token, Entrada entrada) {
+        cache.put(token, entrada);
+    }
+
+    public void remover(String token) {
+        cache.invalidate(token);
+    }
+
+    // Chamado quando um usuário muda: derruba todos os tokens em cache daquele login
+    public void invalidarUsuario(String login) {
+        cache.asMap().values().removeIf(entrada -> entrada.usuario().getUsername().equals(login));
+    }
+}
@@ -0,0 +1,21 @@
+package com.Caminhar.api.infra.security;
+
+import com.Caminhar.api.model.user.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Instanciado pelo Hibernate através do container de beans do Spring
+public class UserCacheListener {
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void usuarioAlterado(User user) {
+        tokenCache.invalidarUsuario(user.getUsername());
+    }
+}
@@ -3,50 +3,95 @@ package com.Caminhar.api.infra.tokenService;
 
 import com.Caminhar.api.model.user.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
+    public static final String TIPO_ACESSO = "acesso";
+    public static final String TIPO_REFRESH = "refresh";
+
     @Value("${api.security.token.secret}")
     private String secret;
 
+    // Token de acesso curto; a sessão é mantida pelo refresh token
+    @Value("${api.security.token.acesso-minutos:15}")
+    private long acessoMinutos;
+
+    @Value("${api.security.token.refresh-horas:12}")
+    private long refreshHoras;
+
+    // Algoritmo e verificador são imutáveis e thread-safe: criados uma vez só
+    private Algorithm algorithm;
+
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm)
+                .withIssuer("auth-api")
+                .build();
+    }
+
     public String generateToken(User user) {
+        return gerar(user, TIPO_ACESSO, Instant.now().plus(acessoMinutos, ChronoUnit.MINUTES));
+    }
+
+    public String gerarRefreshToken(User user) {
+        return gerar(user, TIPO_REFRESH, Instant.now().plus(refreshHoras, ChronoUnit.HOURS));
+    }
+
+    public String validateToken(String token) {
+        DecodedJWT jwt = verificar(token);
+        return jwt == null ? "" : jwt.getSubject();
+    }
+
+    // Verifica assinatura, emissor e expiração de um token de acesso; devolve null se não for válido
+    public DecodedJWT verificar(String token) {
+        DecodedJWT jwt = decodificar(token);
+        // Tokens emitidos antes do refresh não têm tipo e valem como acesso
+        if (jwt == null || TIPO_REFRESH.equals(jwt.getClaim("tipo").asString())) return null;
+        return jwt;
+    }
+
+    public DecodedJWT verificarRefresh(String token) {
+        DecodedJWT jwt = decodificar(token);
+        if (jwt == null || !TIPO_REFRESH.equals(jwt.getClaim("tipo").asString())) return null;
+        return jwt;
+    }
+
+    private DecodedJWT decodificar(String token) {
+        try {
+            return verifier.verify(token);
+        } catch (JWTVerificationException exception) {
+            return null;
+        }
+    }
+
+    private String gerar(User user, String tipo, Instant expiraEm) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer("auth-api")
                     .withSubject(user.getUsername())
+                    .withJWTId(UUID.randomUUID().toString()) // identifica o token para revogação
                     .withClaim("role", user.getRole().name()) // Adiciona a role (ex.: ADMIN)
-                    .withExpiresAt(genExpirationDate())
+                    .withClaim("tipo", tipo)
+                    .withExpiresAt(expiraEm)
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Erro ao gerar token", exception);
         }
     }
-
-    public String validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
-        } catch (JWTVerificationException exception) {
-            return "";
-        }
-    }
-
-    private Instant genExpirationDate() {
-        return LocalDateTime.now().plusHours(1).toInstant(ZoneOffset.of("-03:00"));
-    }
 }
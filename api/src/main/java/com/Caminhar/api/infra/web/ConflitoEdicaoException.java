@@ -0,0 +1,9 @@
+package com.Caminhar.api.infra.web;
+
+// Edição feita sobre uma versão que já não é a atual (respondida com 409 pelo TratamentoEdicao)
+public class ConflitoEdicaoException extends RuntimeException {
+
+    public ConflitoEdicaoException(String mensagem) {
+        super(mensagem);
+    }
+}
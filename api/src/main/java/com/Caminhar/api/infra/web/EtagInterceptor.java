@@ -0,0 +1,45 @@
+package com.Caminhar.api.infra.web;
+
+import com.Caminhar.api.infra.replicas.MonitorReplicas;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class EtagInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private VersaoTabelas versaoTabelas;
+
+    // Só existe com leituras em réplica configuradas
+    @Autowired(required = false)
+    private MonitorReplicas monitorReplicas;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod metodo)) return true;
+
+        Versionado versionado = metodo.getMethodAnnotation(Versionado.class);
+        if (versionado == null || !"GET".equals(request.getMethod())) return true;
+
+        // A versão é lida antes da consulta: se houver escrita no meio, a ETag fica mais velha
+        // que os dados e o próximo GET só traz tudo de novo, nunca o contrário
+        String variante = request.getRequestURI() + "?" + (request.getQueryString() != null ? request.getQueryString() : "");
+        String etag = versaoTabelas.etag(versionado.value(), variante);
+
+        // Lida depois da ETag: toda escrita contada nela já confirmou e está abaixo desta versão.
+        // Uma réplica atrasada poria dados velhos sob a ETag nova; só as que já têm a versão atendem.
+        if (monitorReplicas != null) request.setAttribute(MonitorReplicas.VERSAO_MINIMA, monitorReplicas.ultimaConfirmada());
+
+        // Cliente pode guardar, mas sempre confirma com o servidor
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        // Já responde 304 (e grava a ETag) quando o If-None-Match bate
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
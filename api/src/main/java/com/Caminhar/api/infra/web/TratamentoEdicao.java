@@ -0,0 +1,21 @@
+package com.Caminhar.api.infra.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Respostas das edições com controle de versão, iguais para pacientes e registros
+@RestControllerAdvice
+public class TratamentoEdicao {
+
+    @ExceptionHandler(ConflitoEdicaoException.class)
+    public ResponseEntity<String> conflito(ConflitoEdicaoException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(VersaoAusenteException.class)
+    public ResponseEntity<String> versaoAusente(VersaoAusenteException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(e.getMessage());
+    }
+}
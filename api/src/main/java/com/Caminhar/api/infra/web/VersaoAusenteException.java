@@ -0,0 +1,9 @@
+package com.Caminhar.api.infra.web;
+
+// PUT/PATCH sem a versão lida (nem no corpo nem no If-Match); respondida com 428
+public class VersaoAusenteException extends RuntimeException {
+
+    public VersaoAusenteException(String mensagem) {
+        super(mensagem);
+    }
+}
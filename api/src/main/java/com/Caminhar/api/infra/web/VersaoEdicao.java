@@ -0,0 +1,32 @@
+package com.Caminhar.api.infra.web;
+
+// Versão em que o cliente baseou a edição: a "versao" do corpo ou, na falta dela, o If-Match
+// devolvido como ETag pelo GET /{id}. Sem nenhuma das duas a edição não é aceita.
+public final class VersaoEdicao {
+
+    private static final String AUSENTE = "Envie a versao lida (no corpo ou no cabeçalho If-Match) para alterar";
+
+    private VersaoEdicao() {
+    }
+
+    public static long exigir(Long doCorpo, String ifMatch) {
+        if (doCorpo != null) return doCorpo;
+        if (ifMatch == null || ifMatch.isBlank()) throw new VersaoAusenteException(AUSENTE);
+
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) valor = valor.substring(2);
+        if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            valor = valor.substring(1, valor.length() - 1);
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            // "*" ou uma ETag de listagem não dizem qual versão do registro foi lida
+            throw new VersaoAusenteException(AUSENTE);
+        }
+    }
+
+    public static String etag(Long versao) {
+        return "\"" + versao + "\"";
+    }
+}
@@ -0,0 +1,53 @@
+package com.Caminhar.api.infra.web;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Versão de cada tabela, incrementada pelos services depois de cada escrita confirmada.
+// Serve de base para as ETags das listagens. Fica em memória, como os contadores do dashboard:
+// vale para uma instância só da API.
+@Component
+public class VersaoTabelas {
+
+    public enum Tabela { PACIENTES, REGISTROS }
+
+    private final AtomicLongArray versoes = new AtomicLongArray(Tabela.values().length);
+
+    // Muda a cada subida da aplicação, para uma ETag de antes do reinício nunca bater
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    public void alterada(Tabela tabela) {
+        versoes.incrementAndGet(tabela.ordinal());
+    }
+
+    public void alteradas(Tabela... tabelas) {
+        for (Tabela tabela : tabelas) alterada(tabela);
+    }
+
+    public long versao(Tabela tabela) {
+        return versoes.get(tabela.ordinal());
+    }
+
+    // ETag fraca: o conteúdo é o mesmo com ou sem gzip, só os bytes mudam
+    public String etag(Tabela[] tabelas, String variante) {
+        StringBuilder etag = new StringBuilder("W/\"").append(epoca);
+        for (Tabela tabela : tabelas) {
+            etag.append('-').append(Character.toLowerCase(tabela.name().charAt(0))).append(versao(tabela));
+        }
+        return etag.append('-').append(resumo(variante)).append('"').toString();
+    }
+
+    private static String resumo(String variante) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(variante.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.Caminhar.api.infra.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marca um GET cuja resposta só depende das tabelas listadas: ganha ETag e responde 304
+// a um If-None-Match que ainda bate, sem chamar o controller
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Versionado {
+
+    VersaoTabelas.Tabela[] value();
+}
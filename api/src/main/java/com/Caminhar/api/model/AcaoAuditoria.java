@@ -0,0 +1,10 @@
+package com.Caminhar.api.model;
+
+public enum AcaoAuditoria {
+    LEITURA,
+    LISTAGEM,
+    CRIACAO,
+    ALTERACAO,
+    REMOCAO,
+    IMPORTACAO
+}
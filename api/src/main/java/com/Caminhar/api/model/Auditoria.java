@@ -0,0 +1,44 @@
+package com.Caminhar.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Trilha de acesso aos prontuários. Só recebe INSERT (em lote, pelo AuditoriaService)
+@Entity(name = "Auditoria")
+@Table(name = "auditoria", indexes = {
+        @Index(name = "idx_auditoria_paciente", columnList = "pacienteId, id"),
+        @Index(name = "idx_auditoria_usuario", columnList = "usuario, id")
+})
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class Auditoria {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant momento;
+
+    @Column(nullable = false, length = 100)
+    private String usuario;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AcaoAuditoria acao;
+
+    // "paciente" ou "registro"
+    @Column(nullable = false, length = 20)
+    private String recurso;
+
+    // Nulo em listagens e importações
+    private Long recursoId;
+
+    private Long pacienteId;
+
+    private String detalhe;
+}
@@ -1,15 +1,33 @@
 package com.Caminhar.api.model;
 
+import com.Caminhar.api.DTO.PacientesPatchDTO;
 import com.Caminhar.api.DTO.PacientesRequestDTO;
+import com.Caminhar.api.infra.config.CacheConfig;
+import com.Caminhar.api.utils.CpfVerif;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 
-@Table (name = "pacientes")
+@Table (name = "pacientes", indexes = {
+        @Index(name = "idx_pacientes_versao_sync", columnList = "versaoSync"),
+        @Index(name = "idx_pacientes_data_cadastro", columnList = "dataCadastro"),
+        // Um cadastro ativo por CPF; vários nulos são permitidos (removidos e CPFs antigos repetidos)
+        @Index(name = "uk_pacientes_cpf_numero", columnList = "cpfNumero", unique = true)
+})
 @Entity (name = "pacientes")
+// Pacientes removidos ficam como marcação para o /sync; as consultas JPQL não os enxergam
+@SQLRestriction("removido = false")
+// UPDATE só com as colunas que mudaram: trocar o telefone não regrava as observações
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.PACIENTES)
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
@@ -17,13 +35,20 @@ import java.util.UUID;
 @Setter
 public class Pacientes {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence (e não IDENTITY) para o Hibernate conseguir inserir em lote; allocationSize
+    // reserva 50 ids por ida ao banco
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pacientes_seq")
+    @SequenceGenerator(name = "pacientes_seq", sequenceName = "pacientes_seq", allocationSize = 50)
     private Long id;
 
     private String nomePas;
 
     private String cpf;
 
+    // CPF só com os dígitos, como número (CpfVerif.normalizar); nulo se inválido ou removido
+    private Long cpfNumero;
+
     private LocalDate dataNascimento;
 
     private String cep;
@@ -37,21 +62,42 @@ public class Pacientes {
 
     private boolean obito;
 
+    // Pacientes cadastrados antes desta coluna ficam sem data e fora da contagem de novos pacientes
+    private LocalDate dataCadastro;
+
+    // Versão da última alteração (SyncService), base do sync incremental
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long versaoSync;
+
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean removido;
+
+    // Trava otimista: a edição feita sobre uma versão antiga falha em vez de sobrescrever a outra
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
 
     public Pacientes(PacientesRequestDTO dto) {
         this.nomePas = dto.nomePas();
         this.cpf = dto.cpf();
+        this.cpfNumero = numeroCpf(dto.cpf());
         this.dataNascimento = dto.dataNascimento();
         this.cep = dto.cep();
         this.telefone = dto.telefone();
         this.endereco = dto.endereco();
         this.observacoes = dto.observacoes();
         this.obito = dto.obito();
+        this.dataCadastro = LocalDate.now();
     }
 
     public void atualizar(PacientesRequestDTO dto) {
         this.nomePas = dto.nomePas();
         this.cpf = dto.cpf();
+        this.cpfNumero = numeroCpf(dto.cpf());
         this.dataNascimento = dto.dataNascimento();
         this.cep = dto.cep();
         this.telefone = dto.telefone();
@@ -59,4 +105,28 @@ public class Pacientes {
         this.observacoes = dto.observacoes();
         this.obito = dto.obito();
     }
+
+    // PATCH: campo ausente (nulo) fica como está; texto vazio apaga o valor
+    public void aplicar(PacientesPatchDTO dto) {
+        if (dto.cpf() != null) {
+            this.cpf = dto.cpf();
+            this.cpfNumero = numeroCpf(dto.cpf());
+        }
+        if (dto.nomePas() != null) this.nomePas = vazioComoNulo(dto.nomePas());
+        if (dto.dataNascimento() != null) this.dataNascimento = dto.dataNascimento();
+        if (dto.cep() != null) this.cep = vazioComoNulo(dto.cep());
+        if (dto.telefone() != null) this.telefone = vazioComoNulo(dto.telefone());
+        if (dto.endereco() != null) this.endereco = vazioComoNulo(dto.endereco());
+        if (dto.observacoes() != null) this.observacoes = vazioComoNulo(dto.observacoes());
+        if (dto.obito() != null) this.obito = dto.obito();
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Long numeroCpf(String cpf) {
+        long numero = CpfVerif.normalizar(cpf);
+        return numero != CpfVerif.INVALIDO ? numero : null;
+    }
 }
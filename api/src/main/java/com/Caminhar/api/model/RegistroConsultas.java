@@ -1,14 +1,32 @@
 package com.Caminhar.api.model;
 
+import com.Caminhar.api.DTO.RegistroConsultaPatchDTO;
 import com.Caminhar.api.DTO.RegistroConsultaRequestDTO;
+import com.Caminhar.api.infra.config.CacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDate;
 
 
 @Entity (name = "RegistroConsultas")
-@Table (name = "RegistroConsultas")
+@Table (name = "RegistroConsultas", indexes = {
+        @Index(name = "idx_registro_consultas_data", columnList = "dataRegistro, id"),
+        // Linha do tempo do paciente: uma varredura de intervalo por paciente
+        @Index(name = "idx_registro_consultas_paciente", columnList = "paciente_id, dataRegistro, id"),
+        @Index(name = "idx_registro_consultas_versao_sync", columnList = "versaoSync")
+})
+@SQLRestriction("removido = false")
+// Corrigir a data não reenvia sintomas, diagnóstico e exames
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.REGISTROS)
 @EqualsAndHashCode(of = "id")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,6 +50,26 @@ public class RegistroConsultas {
 
     private LocalDate dataRegistro;
 
+    // Registros antigos podem não ter paciente; ao remover o paciente o vínculo é desfeito
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paciente_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private Pacientes paciente;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long versaoSync;
+
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean removido;
+
+    // Dois profissionais editando o mesmo registro: o segundo a gravar recebe 409
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     public RegistroConsultas(RegistroConsultaRequestDTO dto) {
         this.consulta = dto.consulta();
         this.sintomas = dto.sintomas();
@@ -47,4 +85,17 @@ public class RegistroConsultas {
         this.exames = dto.exames();
         this.dataRegistro = dto.dataRegistro();
     }
+
+    // PATCH: só os campos enviados (o vínculo com o paciente é tratado no service)
+    public void aplicar(RegistroConsultaPatchDTO dto) {
+        if (dto.consulta() != null) this.consulta = vazioComoNulo(dto.consulta());
+        if (dto.sintomas() != null) this.sintomas = vazioComoNulo(dto.sintomas());
+        if (dto.diagnostico() != null) this.diagnostico = vazioComoNulo(dto.diagnostico());
+        if (dto.exames() != null) this.exames = vazioComoNulo(dto.exames());
+        if (dto.dataRegistro() != null) this.dataRegistro = dto.dataRegistro();
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor.isEmpty() ? null : valor;
+    }
 }
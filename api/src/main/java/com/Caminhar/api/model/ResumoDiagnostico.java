@@ -0,0 +1,36 @@
+package com.Caminhar.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Consultas de um dia por diagnóstico (normalizado em minúsculas, sem espaços nas pontas)
+@Entity(name = "ResumoDiagnostico")
+@Table(name = "resumo_diagnostico", indexes = {
+        @Index(name = "idx_resumo_diagnostico_dia", columnList = "dia, diagnostico")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ResumoDiagnostico {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDate dia;
+
+    private String diagnostico;
+
+    private long total;
+
+    public ResumoDiagnostico(LocalDate dia, String diagnostico, long total) {
+        this.dia = dia;
+        this.diagnostico = diagnostico;
+        this.total = total;
+    }
+}
@@ -0,0 +1,29 @@
+package com.Caminhar.api.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Totais de um dia, mantidos pelo ResumoService a partir de registros e pacientes.
+// Dias sem movimento não têm linha.
+@Entity(name = "ResumoDiario")
+@Table(name = "resumo_diario")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ResumoDiario {
+
+    @Id
+    private LocalDate dia;
+
+    private long consultas;
+
+    private long novosPacientes;
+}
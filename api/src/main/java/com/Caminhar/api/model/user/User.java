@@ -1,9 +1,13 @@
 package com.Caminhar.api.model.user;
 
+import com.Caminhar.api.infra.config.CacheConfig;
+import com.Caminhar.api.infra.security.UserCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +20,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
+@EntityListeners(UserCacheListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USUARIOS)
 public class User implements UserDetails {
 
     @Id
@@ -0,0 +1,17 @@
+package com.Caminhar.api.repository;
+
+import com.Caminhar.api.model.Auditoria;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+// Leitura da trilha do mais recente para o mais antigo, por chave (id)
+public interface AuditoriaRepository extends JpaRepository<Auditoria, Long> {
+
+    List<Auditoria> findByPacienteIdAndIdLessThanOrderByIdDesc(Long pacienteId, Long id, Limit limite);
+
+    List<Auditoria> findByUsuarioAndIdLessThanOrderByIdDesc(String usuario, Long id, Limit limite);
+
+    List<Auditoria> findByIdLessThanOrderByIdDesc(Long id, Limit limite);
+}
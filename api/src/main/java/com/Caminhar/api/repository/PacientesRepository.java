@@ -1,9 +1,61 @@
 package com.Caminhar.api.repository;
 
 import com.Caminhar.api.model.Pacientes;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface PacientesRepository extends JpaRepository<Pacientes, Long>{
+
+    // Paginação por chave: usa o índice da PK em vez de OFFSET
+    List<Pacientes> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    // Cursor JDBC com fetch size fixo, para escrever a resposta conforme as linhas chegam
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            // Varredura completa: não deve expulsar do cache os registros quentes
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM pacientes p ORDER BY p.id")
+    Stream<Pacientes> streamTodos();
+
+    // SQL nativo para enxergar também os removidos (o @SQLRestriction só vale para JPQL)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(value = """
+            SELECT * FROM pacientes
+            WHERE versao_sync > :desde AND versao_sync <= :ate
+              AND (removido = false OR :comRemovidos = true)
+            ORDER BY versao_sync, id
+            """, nativeQuery = true)
+    Stream<Pacientes> streamAlterados(@Param("desde") long desde,
+                                      @Param("ate") long ate,
+                                      @Param("comRemovidos") boolean comRemovidos);
+
+    @Query(value = "SELECT COALESCE(MAX(versao_sync), 0) FROM pacientes", nativeQuery = true)
+    long maiorVersaoSync();
+
+    // Fonte do resumo diário (ResumoService): [dataCadastro, total] dos dias pedidos
+    @Query("SELECT p.dataCadastro, COUNT(p) FROM pacientes p WHERE p.dataCadastro IN :dias GROUP BY p.dataCadastro")
+    List<Object[]> contarCadastrosPorDia(@Param("dias") Collection<LocalDate> dias);
+
+    @Query("SELECT DISTINCT p.dataCadastro FROM pacientes p WHERE p.dataCadastro IS NOT NULL")
+    List<LocalDate> diasComCadastros();
 }
@@ -1,7 +1,158 @@
 package com.Caminhar.api.repository;
 
+import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.DTO.RegistroConsultaResumoDTO;
 import com.Caminhar.api.model.RegistroConsultas;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface RegistroConsultaRepository extends JpaRepository<RegistroConsultas, Long>{
+
+    // Paginação por chave em (dataRegistro, id), do mais recente para o mais antigo,
+    // servida pelo índice idx_registro_consultas_data. O "dataRegistro <= :data" repete o que o OR
+    // já garante, mas em forma de intervalo: com a tabela particionada por mês (PostgreSQL), as
+    // páginas seguintes nem abrem as partições dos meses depois do cursor.
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.RegistroConsultaResumoDTO(r.id, r.consulta, r.dataRegistro)
+            FROM RegistroConsultas r
+            WHERE r.dataRegistro BETWEEN :inicio AND :fim
+              AND r.dataRegistro <= :data
+              AND (r.dataRegistro < :data OR (r.dataRegistro = :data AND r.id < :id))
+            ORDER BY r.dataRegistro DESC, r.id DESC
+            """)
+    List<RegistroConsultaResumoDTO> buscarResumos(@Param("inicio") LocalDate inicio,
+                                                  @Param("fim") LocalDate fim,
+                                                  @Param("data") LocalDate data,
+                                                  @Param("id") Long id,
+                                                  Limit limite);
+
+    @Query("""
+            SELECT r FROM RegistroConsultas r
+            WHERE r.dataRegistro BETWEEN :inicio AND :fim
+              AND r.dataRegistro <= :data
+              AND (r.dataRegistro < :data OR (r.dataRegistro = :data AND r.id < :id))
+            ORDER BY r.dataRegistro DESC, r.id DESC
+            """)
+    List<RegistroConsultas> buscarCompletos(@Param("inicio") LocalDate inicio,
+                                            @Param("fim") LocalDate fim,
+                                            @Param("data") LocalDate data,
+                                            @Param("id") Long id,
+                                            Limit limite);
+
+    // Registros sem dataRegistro, que a paginação sem período lista depois dos datados, por id
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.RegistroConsultaResumoDTO(r.id, r.consulta, r.dataRegistro)
+            FROM RegistroConsultas r
+            WHERE r.dataRegistro IS NULL AND r.id < :id
+            ORDER BY r.id DESC
+            """)
+    List<RegistroConsultaResumoDTO> buscarResumosSemData(@Param("id") Long id, Limit limite);
+
+    @Query("""
+            SELECT r FROM RegistroConsultas r
+            WHERE r.dataRegistro IS NULL AND r.id < :id
+            ORDER BY r.id DESC
+            """)
+    List<RegistroConsultas> buscarCompletosSemData(@Param("id") Long id, Limit limite);
+
+    // Linha do tempo de um paciente, servida pelo índice idx_registro_consultas_paciente.
+    // As projeções leem paciente_id da própria linha, sem join nem carga preguiçosa.
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.RegistroConsultaResumoDTO(r.id, r.consulta, r.dataRegistro)
+            FROM RegistroConsultas r
+            WHERE r.paciente.id = :pacienteId
+              AND r.dataRegistro BETWEEN :inicio AND :fim
+              AND r.dataRegistro <= :data
+              AND (r.dataRegistro < :data OR (r.dataRegistro = :data AND r.id < :id))
+            ORDER BY r.dataRegistro DESC, r.id DESC
+            """)
+    List<RegistroConsultaResumoDTO> buscarResumosDoPaciente(@Param("pacienteId") Long pacienteId,
+                                                            @Param("inicio") LocalDate inicio,
+                                                            @Param("fim") LocalDate fim,
+                                                            @Param("data") LocalDate data,
+                                                            @Param("id") Long id,
+                                                            Limit limite);
+
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.RegistroConsultaResponseDTO(
+                r.id, r.consulta, r.sintomas, r.diagnostico, r.exames, r.dataRegistro, r.paciente.id, r.versao)
+            FROM RegistroConsultas r
+            WHERE r.paciente.id = :pacienteId
+              AND r.dataRegistro BETWEEN :inicio AND :fim
+              AND r.dataRegistro <= :data
+              AND (r.dataRegistro < :data OR (r.dataRegistro = :data AND r.id < :id))
+            ORDER BY r.dataRegistro DESC, r.id DESC
+            """)
+    List<RegistroConsultaResponseDTO> buscarCompletosDoPaciente(@Param("pacienteId") Long pacienteId,
+                                                                @Param("inicio") LocalDate inicio,
+                                                                @Param("fim") LocalDate fim,
+                                                                @Param("data") LocalDate data,
+                                                                @Param("id") Long id,
+                                                                Limit limite);
+
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.RegistroConsultaResumoDTO(r.id, r.consulta, r.dataRegistro)
+            FROM RegistroConsultas r
+            WHERE r.paciente.id = :pacienteId AND r.dataRegistro IS NULL AND r.id < :id
+            ORDER BY r.id DESC
+            """)
+    List<RegistroConsultaResumoDTO> buscarResumosDoPacienteSemData(@Param("pacienteId") Long pacienteId,
+                                                                   @Param("id") Long id,
+                                                                   Limit limite);
+
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.RegistroConsultaResponseDTO(
+                r.id, r.consulta, r.sintomas, r.diagnostico, r.exames, r.dataRegistro, r.paciente.id, r.versao)
+            FROM RegistroConsultas r
+            WHERE r.paciente.id = :pacienteId AND r.dataRegistro IS NULL AND r.id < :id
+            ORDER BY r.id DESC
+            """)
+    List<RegistroConsultaResponseDTO> buscarCompletosDoPacienteSemData(@Param("pacienteId") Long pacienteId,
+                                                                       @Param("id") Long id,
+                                                                       Limit limite);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            // Varredura completa: não deve expulsar do cache os registros quentes
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT r FROM RegistroConsultas r ORDER BY r.id")
+    Stream<RegistroConsultas> streamTodos();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(value = """
+            SELECT * FROM registro_consultas
+            WHERE versao_sync > :desde AND versao_sync <= :ate
+              AND (removido = false OR :comRemovidos = true)
+            ORDER BY versao_sync, id
+            """, nativeQuery = true)
+    Stream<RegistroConsultas> streamAlterados(@Param("desde") long desde,
+                                              @Param("ate") long ate,
+                                              @Param("comRemovidos") boolean comRemovidos);
+
+    @Query(value = "SELECT COALESCE(MAX(versao_sync), 0) FROM registro_consultas", nativeQuery = true)
+    long maiorVersaoSync();
+
+    // Ao remover um paciente os registros dele continuam, sem vínculo (como o antigo ON DELETE SET NULL)
+    @Modifying
+    @Query("UPDATE RegistroConsultas r SET r.paciente = null, r.versaoSync = :versao, r.versao = r.versao + 1 WHERE r.paciente.id = :pacienteId")
+    int desvincularPaciente(@Param("pacienteId") Long pacienteId, @Param("versao") long versao);
 }
@@ -1,16 +1,25 @@
 package com.Caminhar.api.repository;
 
 import com.Caminhar.api.model.RegistroConsultas;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+// As contagens ficam no cache de consultas; qualquer escrita em registro_consultas as invalida
 public interface RegistroConsultasRepository extends JpaRepository<RegistroConsultas, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(r) FROM RegistroConsultas r WHERE r.dataRegistro = :data")
     long countByData(@Param("data") LocalDate data);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     long countByDataRegistroAfter(LocalDate data);
 
     // Solução mais segura - evita problemas com CURRENT_DATE
@@ -20,6 +29,28 @@ public interface RegistroConsultasRepository extends JpaRepository<RegistroConsu
     }
 
     // Ou se quiser manter a anotação @Query
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(r) FROM RegistroConsultas r WHERE r.dataRegistro >= :dataLimite")
     long countFromDate(@Param("dataLimite") LocalDate dataLimite);
+
+    // Uma linha por dia: [dataRegistro, total]
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT r.dataRegistro, COUNT(r) FROM RegistroConsultas r WHERE r.dataRegistro > :data GROUP BY r.dataRegistro")
+    List<Object[]> contarPorDiaApos(@Param("data") LocalDate data);
+
+    // Fonte do resumo diário (ResumoService): [dataRegistro, total] dos dias pedidos
+    @Query("SELECT r.dataRegistro, COUNT(r) FROM RegistroConsultas r WHERE r.dataRegistro IN :dias GROUP BY r.dataRegistro")
+    List<Object[]> contarPorDia(@Param("dias") Collection<LocalDate> dias);
+
+    // [dataRegistro, diagnóstico normalizado, total]
+    @Query("""
+            SELECT r.dataRegistro, LOWER(TRIM(r.diagnostico)), COUNT(r)
+            FROM RegistroConsultas r
+            WHERE r.dataRegistro IN :dias AND r.diagnostico IS NOT NULL AND TRIM(r.diagnostico) <> ''
+            GROUP BY r.dataRegistro, LOWER(TRIM(r.diagnostico))
+            """)
+    List<Object[]> contarDiagnosticosPorDia(@Param("dias") Collection<LocalDate> dias);
+
+    @Query("SELECT DISTINCT r.dataRegistro FROM RegistroConsultas r WHERE r.dataRegistro IS NOT NULL")
+    List<LocalDate> diasComConsultas();
 }
\ No newline at end of file
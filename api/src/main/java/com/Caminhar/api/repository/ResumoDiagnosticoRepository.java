@@ -0,0 +1,31 @@
+package com.Caminhar.api.repository;
+
+import com.Caminhar.api.DTO.DiagnosticoTotalDTO;
+import com.Caminhar.api.model.ResumoDiagnostico;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumoDiagnosticoRepository extends JpaRepository<ResumoDiagnostico, Long> {
+
+    @Query("""
+            SELECT new com.Caminhar.api.DTO.DiagnosticoTotalDTO(d.diagnostico, SUM(d.total))
+            FROM ResumoDiagnostico d
+            WHERE d.dia BETWEEN :inicio AND :fim
+            GROUP BY d.diagnostico
+            ORDER BY SUM(d.total) DESC, d.diagnostico
+            """)
+    List<DiagnosticoTotalDTO> principais(@Param("inicio") LocalDate inicio,
+                                         @Param("fim") LocalDate fim,
+                                         Limit limite);
+
+    @Modifying
+    @Query("DELETE FROM ResumoDiagnostico d WHERE d.dia IN :dias")
+    int apagarDias(@Param("dias") Collection<LocalDate> dias);
+}
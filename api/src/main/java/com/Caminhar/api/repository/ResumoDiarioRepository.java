@@ -0,0 +1,20 @@
+package com.Caminhar.api.repository;
+
+import com.Caminhar.api.model.ResumoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumoDiarioRepository extends JpaRepository<ResumoDiario, LocalDate> {
+
+    List<ResumoDiario> findByDiaBetweenOrderByDia(LocalDate inicio, LocalDate fim);
+
+    @Modifying
+    @Query("DELETE FROM ResumoDiario r WHERE r.dia IN :dias")
+    int apagarDias(@Param("dias") Collection<LocalDate> dias);
+}
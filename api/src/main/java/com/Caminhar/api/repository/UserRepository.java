@@ -2,9 +2,16 @@ package com.Caminhar.api.repository;
 
 
 import com.Caminhar.api.model.user.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // O login vira id no cache de consultas e a entidade sai do cache de segundo nível
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     UserDetails findByLogin(String login);
 }
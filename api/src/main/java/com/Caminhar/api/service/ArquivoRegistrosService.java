@@ -0,0 +1,448 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.infra.web.VersaoTabelas;
+import com.Caminhar.api.model.AcaoAuditoria;
+import com.Caminhar.api.model.RegistroConsultas;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Arquivo frio dos registros de consulta. Meses anteriores ao horizonte de retenção saem do banco
+// para segmentos imutáveis em disco: NDJSON (o mesmo da exportação) em blocos gzip independentes, e ao
+// lado um índice com o primeiro id e a posição de cada bloco. Os índices de todos os segmentos ficam
+// em memória (dois long por bloco); buscar um registro arquivado descompacta um único bloco.
+//
+// As marcações de remoção (removido = true) não vão para o segmento e continuam no banco, para o /sync
+// ainda entregá-las a quem não sincronizou desde a remoção. Com partições, elas passam para a padrão.
+//
+// Só uma instância deve arquivar, e o diretório precisa ser o mesmo entre reinícios. Quando um dia de
+// mês arquivado é recalculado no resumo do dashboard, o ResumoService soma o que está nos segmentos.
+@Service
+public class ArquivoRegistrosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivoRegistrosService.class);
+
+    private static final String PREFIXO = "registros-";
+    private static final String DADOS = ".ndjson.gz";
+    private static final String INDICE = ".idx";
+    private static final int FORMATO = 1;
+
+    private static final String SQL_MES = """
+            SELECT id, consulta, sintomas, diagnostico, exames, data_registro, paciente_id, versao
+            FROM registro_consultas
+            WHERE data_registro >= ? AND data_registro < ? AND removido = false
+            ORDER BY id
+            """;
+
+    // Publicado depois do commit de um arquivamento que tirou linhas do banco
+    public record MesArquivado(YearMonth mes) {
+    }
+
+    // Blocos ordenados por id: primeiros[i] é o menor id do bloco i, que começa em posicoes[i]
+    private record Segmento(Path arquivo, YearMonth mes, long menorId, long maiorId, long[] primeiros, long[] posicoes) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ParticoesRegistrosService particoes;
+
+    @Autowired
+    private VersaoTabelas versaoTabelas;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${api.registros.arquivo.diretorio:arquivo-registros}")
+    private String diretorio;
+
+    // Meses completos mantidos no banco além do atual; 0 desliga o arquivamento
+    @Value("${api.registros.arquivo.retencao-meses:24}")
+    private int retencaoMeses;
+
+    @Value("${api.registros.arquivo.bloco:256}")
+    private int tamanhoBloco;
+
+    private Path pasta;
+
+    // Lê o mês aos poucos (cursor no PostgreSQL, dentro da transação) em vez de trazê-lo inteiro
+    private JdbcTemplate leitura;
+
+    private volatile List<Segmento> segmentos = List.of();
+
+    // Um arquivamento por vez; ReentrantLock porque o trecho inteiro espera banco e disco
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PostConstruct
+    void carregar() throws IOException {
+        // Template próprio para não mudar o fetch size das outras consultas
+        leitura = new JdbcTemplate(dataSource);
+        leitura.setFetchSize(tamanhoBloco);
+
+        pasta = Path.of(diretorio);
+        if (!Files.isDirectory(pasta)) return;
+
+        List<Segmento> carregados = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            for (Path indice : arquivos.filter(a -> a.getFileName().toString().endsWith(INDICE)).toList()) {
+                carregados.add(lerIndice(indice));
+            }
+        }
+        carregados.sort(Comparator.comparingLong(Segmento::menorId));
+        segmentos = List.copyOf(carregados);
+        if (!carregados.isEmpty()) logger.info("{} segmentos de registros arquivados em {}", carregados.size(), pasta.toAbsolutePath());
+    }
+
+    public Optional<RegistroConsultaResponseDTO> buscar(long id) {
+        // O NDJSON começa sempre pelo id: só a linha certa é convertida
+        String prefixo = "{\"id\":" + id + ",";
+        for (Segmento segmento : segmentos) {
+            if (id < segmento.menorId() || id > segmento.maiorId()) continue;
+
+            int bloco = Arrays.binarySearch(segmento.primeiros(), id);
+            if (bloco < 0) bloco = -bloco - 2;
+
+            try (BufferedReader leitor = lerBloco(segmento, bloco)) {
+                String linha;
+                while ((linha = leitor.readLine()) != null) {
+                    if (linha.startsWith(prefixo)) {
+                        return Optional.of(objectMapper.readValue(linha, RegistroConsultaResponseDTO.class));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler o segmento " + segmento.arquivo(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int segmentos() {
+        return segmentos.size();
+    }
+
+    public Set<YearMonth> meses() {
+        Set<YearMonth> meses = new HashSet<>();
+        for (Segmento segmento : segmentos) meses.add(segmento.mes());
+        return meses;
+    }
+
+    // Todos os registros arquivados do mês, bloco a bloco
+    public void percorrer(YearMonth mes, Consumer<RegistroConsultaResponseDTO> acao) {
+        for (Segmento segmento : segmentos) {
+            if (segmento.mes().equals(mes)) percorrer(segmento, acao);
+        }
+    }
+
+    // Todos os registros arquivados, segmento a segmento
+    public void percorrer(Consumer<RegistroConsultaResponseDTO> acao) {
+        for (Segmento segmento : segmentos) percorrer(segmento, acao);
+    }
+
+    private void percorrer(Segmento segmento, Consumer<RegistroConsultaResponseDTO> acao) {
+        for (int bloco = 0; bloco < segmento.posicoes().length; bloco++) {
+            try (BufferedReader leitor = lerBloco(segmento, bloco)) {
+                String linha;
+                while ((linha = leitor.readLine()) != null) {
+                    acao.accept(objectMapper.readValue(linha, RegistroConsultaResponseDTO.class));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler o segmento " + segmento.arquivo(), e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${api.registros.arquivo.cron:0 30 3 * * *}")
+    public void arquivarAntigos() {
+        if (retencaoMeses <= 0) return;
+
+        LocalDate horizonte = YearMonth.now().minusMonths(retencaoMeses).atDay(1);
+        LocalDate menor;
+        while ((menor = jdbcTemplate.queryForObject("SELECT MIN(data_registro) FROM registro_consultas WHERE data_registro < ? AND removido = false",
+                LocalDate.class, horizonte)) != null) {
+            arquivar(YearMonth.from(menor));
+        }
+    }
+
+    // Grava o segmento do mês e só então tira as linhas do banco, na mesma transação que as travou
+    public int arquivar(YearMonth mes) {
+        lock.lock();
+        try {
+            LocalDate inicio = mes.atDay(1);
+            LocalDate fim = mes.plusMonths(1).atDay(1);
+            String particao = particoes.particao(mes);
+            Path[] publicados = new Path[2];
+
+            List<Long> ids;
+            try {
+                ids = transactionTemplate.execute(status -> {
+                    // Com partição própria, trava só o mês contra escrita; sem ela, as linhas lidas
+                    if (particao != null) jdbcTemplate.execute("LOCK TABLE " + particao + " IN EXCLUSIVE MODE");
+                    String consulta = particao != null ? SQL_MES : SQL_MES + " FOR UPDATE";
+
+                    List<Long> lidos = new ArrayList<>();
+                    Segmento segmento = escrever(mes, consulta, inicio, fim, lidos, publicados);
+
+                    if (particao != null) {
+                        // Sem a partição do mês, as marcações de remoção voltam para a padrão
+                        jdbcTemplate.execute("ALTER TABLE registro_consultas DETACH PARTITION " + particao);
+                        jdbcTemplate.execute("INSERT INTO registro_consultas SELECT * FROM " + particao + " WHERE removido = true");
+                        jdbcTemplate.execute("DROP TABLE " + particao);
+                    } else {
+                        jdbcTemplate.batchUpdate("DELETE FROM registro_consultas WHERE id = ?", lidos, 1000,
+                                (ps, id) -> ps.setLong(1, id));
+                    }
+
+                    if (segmento != null) adicionar(segmento);
+                    return lidos;
+                });
+            } catch (RuntimeException e) {
+                // Sem o commit as linhas continuam no banco; o segmento sairia duplicado na próxima tentativa
+                descartar(publicados);
+                throw e;
+            }
+
+            if (ids.isEmpty()) return 0;
+
+            // As exclusões foram por JDBC: o Hibernate não sabe que as entidades e contagens em cache mudaram
+            SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+            sessionFactory.getCache().evictEntityData(RegistroConsultas.class);
+            sessionFactory.getCache().evictQueryRegions();
+            versaoTabelas.alterada(VersaoTabelas.Tabela.REGISTROS);
+            ids.forEach(buscaService::removerRegistro);
+            eventPublisher.publishEvent(new MesArquivado(mes));
+
+            auditoriaService.registrar(AcaoAuditoria.REMOCAO, AuditoriaService.REGISTRO, null, null,
+                    "arquivamento " + mes + ": " + ids.size() + " registros");
+            logger.info("Registros de {} arquivados: {} linhas", mes, ids.size());
+            return ids.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Escreve em arquivos temporários e publica com rename atômico, o índice por último (é ele que marca o
+    // segmento como completo). Devolve null se o mês não tinha registros além dos removidos.
+    private Segmento escrever(YearMonth mes, String consulta, LocalDate inicio, LocalDate fim,
+                              List<Long> lidos, Path[] publicados) {
+        ObjectWriter writer = objectMapper.writerFor(RegistroConsultaResponseDTO.class);
+        String nome = nomeLivre(mes);
+        Path dados = pasta.resolve(nome + DADOS);
+        Path temporario = pasta.resolve(nome + DADOS + ".tmp");
+
+        List<Long> primeiros = new ArrayList<>();
+        List<Long> posicoes = new ArrayList<>();
+        long[] extremos = {Long.MAX_VALUE, Long.MIN_VALUE};
+
+        try {
+            Files.createDirectories(pasta);
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream saida = Channels.newOutputStream(canal);
+                ByteArrayOutputStream bloco = new ByteArrayOutputStream();
+                int[] noBloco = {0};
+
+                leitura.query(consulta, rs -> {
+                    long id = rs.getLong("id");
+                    lidos.add(id);
+
+                    try {
+                        if (noBloco[0] == 0) {
+                            primeiros.add(id);
+                            posicoes.add(canal.position());
+                        }
+                        bloco.write(writer.writeValueAsBytes(ExportacaoService.REGISTRO.mapRow(rs, 0)));
+                        bloco.write('\n');
+                        extremos[0] = Math.min(extremos[0], id);
+                        extremos[1] = Math.max(extremos[1], id);
+                        if (++noBloco[0] == tamanhoBloco) {
+                            fecharBloco(bloco, saida);
+                            noBloco[0] = 0;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, inicio, fim);
+
+                if (noBloco[0] > 0) fecharBloco(bloco, saida);
+                canal.force(true);
+            }
+
+            if (primeiros.isEmpty()) {
+                Files.delete(temporario);
+                return null;
+            }
+
+            Files.move(temporario, dados, StandardCopyOption.ATOMIC_MOVE);
+            publicados[0] = dados;
+            dados.toFile().setReadOnly();
+
+            Segmento segmento = new Segmento(dados, mes, extremos[0], extremos[1],
+                    primeiros.stream().mapToLong(Long::longValue).toArray(),
+                    posicoes.stream().mapToLong(Long::longValue).toArray());
+            publicados[1] = gravarIndice(nome, segmento);
+            return segmento;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar o segmento " + nome, e);
+        }
+    }
+
+    // Cada bloco é um membro gzip completo: dá para descompactá-lo sozinho a partir da posição
+    private static void fecharBloco(ByteArrayOutputStream bloco, OutputStream saida) throws IOException {
+        ByteArrayOutputStream compactado = new ByteArrayOutputStream(bloco.size() / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compactado)) {
+            bloco.writeTo(gzip);
+        }
+        compactado.writeTo(saida);
+        bloco.reset();
+    }
+
+    private Path gravarIndice(String nome, Segmento segmento) throws IOException {
+        Path indice = pasta.resolve(nome + INDICE);
+        Path temporario = pasta.resolve(nome + INDICE + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream saida = new DataOutputStream(Channels.newOutputStream(canal))) {
+            saida.writeInt(FORMATO);
+            saida.writeLong(segmento.menorId());
+            saida.writeLong(segmento.maiorId());
+            saida.writeInt(segmento.primeiros().length);
+            for (int i = 0; i < segmento.primeiros().length; i++) {
+                saida.writeLong(segmento.primeiros()[i]);
+                saida.writeLong(segmento.posicoes()[i]);
+            }
+            saida.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, indice, StandardCopyOption.ATOMIC_MOVE);
+        indice.toFile().setReadOnly();
+        return indice;
+    }
+
+    private Segmento lerIndice(Path indice) throws IOException {
+        String nome = indice.getFileName().toString();
+        Path dados = indice.resolveSibling(nome.substring(0, nome.length() - INDICE.length()) + DADOS);
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(indice)))) {
+            if (entrada.readInt() != FORMATO) throw new IOException("Formato de índice desconhecido: " + indice);
+            long menorId = entrada.readLong();
+            long maiorId = entrada.readLong();
+            int blocos = entrada.readInt();
+            long[] primeiros = new long[blocos];
+            long[] posicoes = new long[blocos];
+            for (int i = 0; i < blocos; i++) {
+                primeiros[i] = entrada.readLong();
+                posicoes[i] = entrada.readLong();
+            }
+            // registros-AAAA-MM ou registros-AAAA-MM-n
+            YearMonth mes = YearMonth.parse(nome.substring(PREFIXO.length(), PREFIXO.length() + 7));
+            return new Segmento(dados, mes, menorId, maiorId, primeiros, posicoes);
+        }
+    }
+
+    private BufferedReader lerBloco(Segmento segmento, int bloco) throws IOException {
+        try (FileChannel canal = FileChannel.open(segmento.arquivo(), StandardOpenOption.READ)) {
+            long inicio = segmento.posicoes()[bloco];
+            long fim = bloco + 1 < segmento.posicoes().length ? segmento.posicoes()[bloco + 1] : canal.size();
+            ByteBuffer compactado = ByteBuffer.allocate((int) (fim - inicio));
+            while (compactado.hasRemaining()) {
+                if (canal.read(compactado, inicio + compactado.position()) < 0) break;
+            }
+            return new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(compactado.array())), StandardCharsets.UTF_8));
+        }
+    }
+
+    // Um mês arquivado de novo (registro lançado com data antiga depois do arquivamento) ganha outro segmento
+    private String nomeLivre(YearMonth mes) {
+        String base = PREFIXO + mes;
+        String nome = base;
+        for (int i = 2; Files.exists(pasta.resolve(nome + INDICE)) || Files.exists(pasta.resolve(nome + DADOS)); i++) {
+            nome = base + "-" + i;
+        }
+        return nome;
+    }
+
+    private synchronized void adicionar(Segmento segmento) {
+        List<Segmento> novos = new ArrayList<>(segmentos);
+        novos.add(segmento);
+        novos.sort(Comparator.comparingLong(Segmento::menorId));
+        segmentos = List.copyOf(novos);
+    }
+
+    private void descartar(Path[] publicados) {
+        for (Path arquivo : publicados) {
+            if (arquivo == null) continue;
+            try {
+                arquivo.toFile().setWritable(true);
+                Files.deleteIfExists(arquivo);
+            } catch (IOException e) {
+                logger.warn("Não foi possível apagar {}: {}", arquivo, e.getMessage());
+            }
+        }
+        segmentos = segmentos.stream().filter(s -> !s.arquivo().equals(publicados[0])).toList();
+    }
+}
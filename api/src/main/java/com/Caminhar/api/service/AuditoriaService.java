@@ -0,0 +1,223 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.AuditoriaDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
+import com.Caminhar.api.model.AcaoAuditoria;
+import com.Caminhar.api.model.Auditoria;
+import com.Caminhar.api.repository.AuditoriaRepository;
+import com.Caminhar.api.utils.AnelEventos;
+import com.Caminhar.api.utils.Cursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Trilha de auditoria de quem leu ou alterou cada paciente/registro.
+//
+// Os services só publicam o evento num anel em memória (sem lock, sem I/O); uma thread de
+// fundo drena o anel em lotes para a tabela auditoria com um INSERT em lote por vez.
+// Perda máxima numa queda: o que ainda estava no anel, ou seja, no máximo a capacidade do
+// anel e tipicamente o último intervalo de gravação. Com o anel cheio o evento é descartado
+// e contado, em vez de atrasar a requisição.
+@Service
+public class AuditoriaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditoriaService.class);
+
+    public static final String PACIENTE = "paciente";
+    public static final String REGISTRO = "registro";
+
+    private static final String INSERT = """
+            INSERT INTO auditoria (momento, usuario, acao, recurso, recurso_id, paciente_id, detalhe)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Tamanhos das colunas de auditoria; o login do usuário pode ter até 255
+    private static final int TAMANHO_USUARIO = 100;
+    private static final int TAMANHO_DETALHE = 255;
+
+    private record Evento(Instant momento, String usuario, AcaoAuditoria acao, String recurso,
+                          Long recursoId, Long pacienteId, String detalhe) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditoriaRepository repository;
+
+    @Value("${api.auditoria.capacidade:65536}")
+    private int capacidade;
+
+    @Value("${api.auditoria.lote:500}")
+    private int lote;
+
+    @Value("${api.auditoria.intervalo-ms:200}")
+    private long intervaloMs;
+
+    @Value("${api.paginacao.limite-padrao:50}")
+    private int limitePadrao;
+
+    @Value("${api.paginacao.limite-maximo:500}")
+    private int limiteMaximo;
+
+    private AnelEventos<Evento> anel;
+
+    private final AtomicLong descartados = new AtomicLong();
+
+    // Eventos que o banco recusou um a um (dado inválido); ficam só no log
+    private final AtomicLong rejeitados = new AtomicLong();
+
+    private volatile boolean ativo = true;
+
+    private Thread gravador;
+
+    @PostConstruct
+    void iniciar() {
+        anel = new AnelEventos<>(capacidade);
+    }
+
+    // Só começa a gravar com o schema pronto
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarGravador() {
+        gravador = new Thread(this::gravarContinuamente, "auditoria");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    @PreDestroy
+    void parar() throws InterruptedException {
+        ativo = false;
+        if (gravador != null) {
+            LockSupport.unpark(gravador);
+            gravador.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void registrar(AcaoAuditoria acao, String recurso, Long recursoId, Long pacienteId) {
+        registrar(acao, recurso, recursoId, pacienteId, null);
+    }
+
+    public void registrar(AcaoAuditoria acao, String recurso, Long recursoId, Long pacienteId, String detalhe) {
+        Evento evento = new Evento(Instant.now(), cortar(usuarioAtual(), TAMANHO_USUARIO), acao, recurso,
+                recursoId, pacienteId, cortar(detalhe, TAMANHO_DETALHE));
+        if (!anel.oferecer(evento)) {
+            descartados.incrementAndGet();
+        }
+    }
+
+    public PaginaDTO<AuditoriaDTO> consultar(Long pacienteId, String usuario, String cursor, Integer limite) {
+        int tamanho = (limite == null || limite <= 0) ? limitePadrao : Math.min(limite, limiteMaximo);
+        long antesDe = (cursor == null || cursor.isBlank()) ? Long.MAX_VALUE : Cursor.decodificarId(cursor);
+        Limit limit = Limit.of(tamanho + 1);
+
+        List<Auditoria> linhas;
+        if (pacienteId != null) {
+            linhas = repository.findByPacienteIdAndIdLessThanOrderByIdDesc(pacienteId, antesDe, limit);
+        } else if (usuario != null && !usuario.isBlank()) {
+            linhas = repository.findByUsuarioAndIdLessThanOrderByIdDesc(usuario, antesDe, limit);
+        } else {
+            linhas = repository.findByIdLessThanOrderByIdDesc(antesDe, limit);
+        }
+
+        String proximo = null;
+        if (linhas.size() > tamanho) {
+            linhas = linhas.subList(0, tamanho);
+            proximo = Cursor.codificar(linhas.get(tamanho - 1).getId());
+        }
+        return new PaginaDTO<>(linhas.stream().map(AuditoriaDTO::new).toList(), proximo);
+    }
+
+    private void gravarContinuamente() {
+        List<Evento> pendentes = new ArrayList<>(lote);
+        long descartadosAvisados = 0;
+
+        while (ativo || pendentes.size() > 0 || anel.drenar(pendentes, lote) > 0) {
+            if (pendentes.size() < lote) anel.drenar(pendentes, lote - pendentes.size());
+
+            if (pendentes.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervaloMs));
+            } else {
+                try {
+                    gravar(pendentes);
+                    pendentes.clear();
+                } catch (RuntimeException e) {
+                    logger.warn("Lote de {} eventos de auditoria recusado, gravando um a um: {}", pendentes.size(), e.getMessage());
+                    gravarUmAUm(pendentes);
+                    if (!pendentes.isEmpty()) {
+                        // Falha que não é do dado (banco fora do ar): o resto espera, e o anel segura os novos
+                        if (!ativo) break;
+                        LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                    }
+                }
+            }
+
+            long totalDescartados = descartados.get();
+            if (totalDescartados != descartadosAvisados) {
+                logger.warn("Anel de auditoria cheio: {} eventos descartados até agora", totalDescartados);
+                descartadosAvisados = totalDescartados;
+            }
+        }
+    }
+
+    // Tira de "pendentes" o que gravou e o que o banco recusou pelo conteúdo. Para no primeiro erro de
+    // outro tipo, deixando esse evento e os seguintes para a próxima tentativa.
+    private void gravarUmAUm(List<Evento> pendentes) {
+        Iterator<Evento> it = pendentes.iterator();
+        while (it.hasNext()) {
+            Evento evento = it.next();
+            try {
+                gravar(List.of(evento));
+            } catch (DataIntegrityViolationException e) {
+                // Um evento ruim não pode travar a auditoria inteira
+                logger.error("Evento de auditoria recusado pelo banco e descartado ({} até agora): {}",
+                        rejeitados.incrementAndGet(), evento, e);
+            } catch (RuntimeException e) {
+                logger.error("Erro ao gravar eventos de auditoria; {} ficam para a próxima tentativa", pendentes.size(), e);
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    private void gravar(List<Evento> eventos) {
+        jdbcTemplate.batchUpdate(INSERT, eventos, eventos.size(), (ps, e) -> {
+            ps.setTimestamp(1, Timestamp.from(e.momento()));
+            ps.setString(2, e.usuario());
+            ps.setString(3, e.acao().name());
+            ps.setString(4, e.recurso());
+            ps.setObject(5, e.recursoId(), Types.BIGINT);
+            ps.setObject(6, e.pacienteId(), Types.BIGINT);
+            ps.setString(7, e.detalhe());
+        });
+    }
+
+    private static String cortar(String texto, int tamanho) {
+        return texto != null && texto.length() > tamanho ? texto.substring(0, tamanho) : texto;
+    }
+
+    private static String usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null ? autenticacao.getName() : "sistema";
+    }
+}
@@ -0,0 +1,359 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.ResultadoBuscaDTO;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.model.RegistroConsultas;
+import com.Caminhar.api.repository.PacientesRepository;
+import com.Caminhar.api.repository.RegistroConsultaRepository;
+import com.Caminhar.api.utils.AnalisadorPortugues;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Índice Lucene embutido para a busca de pacientes (nome, prefixo de CPF, observações)
+// e de registros de consulta (sintomas, diagnóstico, exames). Os services atualizam o
+// índice a cada escrita; o banco continua sendo a fonte da verdade.
+//
+// Cada commit do índice leva a versaoSync até a qual ele já refletia o banco. Na subida, o que
+// mudou depois dela (com a aplicação parada ou por fora da API, desde que a escrita avance a
+// versaoSync, como o /sync já exige) é reaplicado; índice vazio ou sem marca é reconstruído.
+@Service
+public class BuscaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuscaService.class);
+
+    private static final String PACIENTE = "paciente";
+    private static final String REGISTRO = "registro";
+
+    private static final String MARCA = "versaoSync";
+
+    @Autowired
+    private PacientesRepository pacientesRepository;
+
+    @Autowired
+    private RegistroConsultaRepository registroRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SyncService syncService;
+
+    // Vazio = índice só em memória, reconstruído a cada inicialização
+    @Value("${api.busca.diretorio:}")
+    private String diretorio;
+
+    private final Analyzer analyzer = new AnalisadorPortugues();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Versão observada no commit anterior; é ela que vai no próximo commit (ver gravarEmDisco)
+    private volatile long marcaAnterior = -1;
+
+    @PostConstruct
+    void abrir() throws IOException {
+        directory = diretorio.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(diretorio));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void fechar() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public List<ResultadoBuscaDTO> buscar(String texto, int limite) {
+        if (texto == null || texto.isBlank()) return List.of();
+
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+
+        List<String> termos = termos(texto);
+        for (String termo : termos) {
+            consulta.add(new BoostQuery(new TermQuery(new Term("nome", termo)), 3f), BooleanClause.Occur.SHOULD);
+            consulta.add(new TermQuery(new Term("texto", termo)), BooleanClause.Occur.SHOULD);
+        }
+        // A última palavra pode estar incompleta (busca enquanto digita)
+        if (!termos.isEmpty()) {
+            String ultimo = termos.get(termos.size() - 1);
+            consulta.add(new BoostQuery(new PrefixQuery(new Term("nome", ultimo)), 2f), BooleanClause.Occur.SHOULD);
+        }
+
+        String digitos = somenteDigitos(texto);
+        if (digitos.length() >= 3) {
+            consulta.add(new BoostQuery(new PrefixQuery(new Term("cpf", digitos)), 5f), BooleanClause.Occur.SHOULD);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(consulta.build(), limite);
+                List<ResultadoBuscaDTO> resultados = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    Document doc = searcher.storedFields().document(hit.doc);
+                    resultados.add(new ResultadoBuscaDTO(
+                            doc.get("tipo"),
+                            doc.getField("id").numericValue().longValue(),
+                            doc.get("titulo"),
+                            hit.score));
+                }
+                return resultados;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao consultar o índice de busca", e);
+        }
+    }
+
+    public void indexarPaciente(Pacientes paciente) {
+        gravar(PACIENTE, paciente.getId(), documentoPaciente(paciente));
+        atualizarLeitores();
+    }
+
+    public void indexarPacientes(List<Pacientes> pacientes) {
+        for (Pacientes paciente : pacientes) {
+            gravar(PACIENTE, paciente.getId(), documentoPaciente(paciente));
+        }
+        atualizarLeitores();
+    }
+
+    public void removerPaciente(Long id) {
+        remover(PACIENTE, id);
+    }
+
+    public void indexarRegistro(RegistroConsultas registro) {
+        gravar(REGISTRO, registro.getId(), documentoRegistro(registro));
+        atualizarLeitores();
+    }
+
+    public void removerRegistro(Long id) {
+        remover(REGISTRO, id);
+    }
+
+    // Com o índice em memória (ou um diretório novo) a base é indexada inteira na subida;
+    // com um índice em disco, só o que mudou depois da marca do último commit
+    @EventListener(ApplicationReadyEvent.class)
+    public void atualizarNaSubida() throws IOException {
+        long ate = syncService.limite();
+        long marca = marcaGravada();
+
+        long inicio = System.currentTimeMillis();
+        if (writer.getDocStats().numDocs == 0 || marca < 0) {
+            reconstruir();
+            logger.info("Índice de busca reconstruído com {} documentos em {} ms",
+                    writer.getDocStats().numDocs, System.currentTimeMillis() - inicio);
+        } else {
+            int alterados = reaplicar(marca);
+            logger.info("Índice de busca atualizado desde a versão {}: {} alterações em {} ms",
+                    marca, alterados, System.currentTimeMillis() - inicio);
+        }
+        atualizarLeitores();
+
+        marcaAnterior = ate;
+        writer.setLiveCommitData(Map.of(MARCA, Long.toString(ate)).entrySet());
+        writer.commit();
+    }
+
+    private void reconstruir() throws IOException {
+        // Um índice antigo sem marca pode ter documentos de linhas que já não existem
+        writer.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<Pacientes> pacientes = pacientesRepository.streamTodos()) {
+                Iterator<Pacientes> it = pacientes.iterator();
+                while (it.hasNext()) {
+                    Pacientes paciente = it.next();
+                    gravar(PACIENTE, paciente.getId(), documentoPaciente(paciente));
+                    entityManager.detach(paciente);
+                }
+            }
+            try (Stream<RegistroConsultas> registros = registroRepository.streamTodos()) {
+                Iterator<RegistroConsultas> it = registros.iterator();
+                while (it.hasNext()) {
+                    RegistroConsultas registro = it.next();
+                    gravar(REGISTRO, registro.getId(), documentoRegistro(registro));
+                    entityManager.detach(registro);
+                }
+            }
+        });
+    }
+
+    // Mesma leitura do /sync, com as marcações de removidos
+    private int reaplicar(long desde) {
+        int[] alterados = new int[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<Pacientes> pacientes = pacientesRepository.streamAlterados(desde, Long.MAX_VALUE, true)) {
+                Iterator<Pacientes> it = pacientes.iterator();
+                while (it.hasNext()) {
+                    Pacientes paciente = it.next();
+                    if (paciente.isRemovido()) excluir(PACIENTE, paciente.getId());
+                    else gravar(PACIENTE, paciente.getId(), documentoPaciente(paciente));
+                    entityManager.detach(paciente);
+                    alterados[0]++;
+                }
+            }
+            try (Stream<RegistroConsultas> registros = registroRepository.streamAlterados(desde, Long.MAX_VALUE, true)) {
+                Iterator<RegistroConsultas> it = registros.iterator();
+                while (it.hasNext()) {
+                    RegistroConsultas registro = it.next();
+                    if (registro.isRemovido()) excluir(REGISTRO, registro.getId());
+                    else gravar(REGISTRO, registro.getId(), documentoRegistro(registro));
+                    entityManager.detach(registro);
+                    alterados[0]++;
+                }
+            }
+        });
+        return alterados[0];
+    }
+
+    private long marcaGravada() {
+        for (Map.Entry<String, String> dado : writer.getLiveCommitData()) {
+            if (MARCA.equals(dado.getKey())) return Long.parseLong(dado.getValue());
+        }
+        return -1;
+    }
+
+    // A marca gravada é a versão vista no commit anterior, não a atual: a escrita confirma no banco
+    // e só depois o service atualiza o índice. Reaplicar alguma alteração a mais na subida não faz mal.
+    @Scheduled(fixedDelayString = "${api.busca.commit-ms:30000}")
+    public void gravarEmDisco() {
+        long marca = marcaAnterior;
+        marcaAnterior = syncService.limite();
+        try {
+            if (writer.hasUncommittedChanges()) {
+                if (marca >= 0) writer.setLiveCommitData(Map.of(MARCA, Long.toString(marca)).entrySet());
+                writer.commit();
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao gravar o índice de busca", e);
+        }
+    }
+
+    private Document documentoPaciente(Pacientes p) {
+        Document doc = base(PACIENTE, p.getId(), p.getNomePas());
+        if (p.getNomePas() != null) doc.add(new TextField("nome", p.getNomePas(), Field.Store.NO));
+        if (p.getCpf() != null) doc.add(new StringField("cpf", somenteDigitos(p.getCpf()), Field.Store.NO));
+        if (p.getObservacoes() != null) doc.add(new TextField("texto", p.getObservacoes(), Field.Store.NO));
+        return doc;
+    }
+
+    private Document documentoRegistro(RegistroConsultas r) {
+        String titulo = r.getConsulta() + (r.getDataRegistro() != null ? " (" + r.getDataRegistro() + ")" : "");
+        Document doc = base(REGISTRO, r.getId(), titulo);
+        for (String texto : new String[]{r.getConsulta(), r.getSintomas(), r.getDiagnostico(), r.getExames()}) {
+            if (texto != null) doc.add(new TextField("texto", texto, Field.Store.NO));
+        }
+        return doc;
+    }
+
+    private Document base(String tipo, Long id, String titulo) {
+        Document doc = new Document();
+        doc.add(new StringField("chave", tipo + ":" + id, Field.Store.NO));
+        doc.add(new StringField("tipo", tipo, Field.Store.YES));
+        doc.add(new StoredField("id", id));
+        doc.add(new StoredField("titulo", titulo == null ? "" : titulo));
+        return doc;
+    }
+
+    private void gravar(String tipo, Long id, Document doc) {
+        try {
+            writer.updateDocument(new Term("chave", tipo + ":" + id), doc);
+        } catch (IOException e) {
+            // O índice é secundário: uma falha aqui não derruba a escrita no banco
+            logger.error("Erro ao indexar {} {}", tipo, id, e);
+        }
+    }
+
+    private void remover(String tipo, Long id) {
+        excluir(tipo, id);
+        atualizarLeitores();
+    }
+
+    private void excluir(String tipo, Long id) {
+        try {
+            writer.deleteDocuments(new Term("chave", tipo + ":" + id));
+        } catch (IOException e) {
+            logger.error("Erro ao remover {} {} do índice", tipo, id, e);
+        }
+    }
+
+    private void atualizarLeitores() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Erro ao atualizar o leitor do índice de busca", e);
+        }
+    }
+
+    private List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream("texto", texto)) {
+            CharTermAttribute termo = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                termos.add(termo.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return termos;
+    }
+
+    private static String somenteDigitos(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+}
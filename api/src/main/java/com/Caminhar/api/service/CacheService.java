@@ -0,0 +1,47 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.CacheEstatisticasDTO;
+import com.Caminhar.api.infra.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lê as estatísticas que o provedor JCache publica no JMX para cada região do cache de segundo nível
+@Service
+public class CacheService {
+
+    private final MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+
+    @Autowired
+    private CacheManager cacheManagerHibernate;
+
+    public List<CacheEstatisticasDTO> estatisticas() {
+        List<CacheEstatisticasDTO> resultado = new ArrayList<>();
+        for (String regiao : CacheConfig.REGIOES) {
+            try {
+                // Só as regiões do CacheManager deste contexto
+                ObjectName nome = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                        + cacheManagerHibernate.getURI() + ",Cache=" + regiao);
+                if (!servidor.isRegistered(nome)) continue;
+
+                resultado.add(new CacheEstatisticasDTO(
+                        regiao,
+                        (Long) servidor.getAttribute(nome, "CacheHits"),
+                        (Long) servidor.getAttribute(nome, "CacheMisses"),
+                        (Float) servidor.getAttribute(nome, "CacheHitPercentage"),
+                        (Long) servidor.getAttribute(nome, "CachePuts"),
+                        (Long) servidor.getAttribute(nome, "CacheRemovals"),
+                        (Long) servidor.getAttribute(nome, "CacheEvictions")));
+            } catch (Exception e) {
+                throw new RuntimeException("Erro ao ler as estatísticas do cache " + regiao, e);
+            }
+        }
+        return resultado;
+    }
+}
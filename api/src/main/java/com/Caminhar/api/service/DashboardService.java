@@ -0,0 +1,123 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.DashboardStatsDTO;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.repository.PacientesRepository;
+import com.Caminhar.api.repository.RegistroConsultasRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores do dashboard mantidos em memória: os services avisam cada criação/remoção
+// e uma reconciliação periódica com o banco corrige qualquer diferença. Os mesmos avisos
+// marcam os dias que o resumo diário (ResumoService) precisa recalcular.
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final int JANELA_DIAS = 30;
+
+    @Autowired
+    private PacientesRepository pacientesRepository;
+
+    @Autowired
+    private RegistroConsultasRepository registroConsultasRepository;
+
+    @Autowired
+    private ResumoService resumoService;
+
+    private final AtomicLong totalPacientes = new AtomicLong();
+
+    // Um balde por dia de dataRegistro dentro da janela de 30 dias (inclui datas futuras,
+    // como o countByDataRegistroAfter)
+    private volatile Map<LocalDate, LongAdder> consultasPorDia = new ConcurrentHashMap<>();
+
+    public DashboardStatsDTO estatisticas() {
+        LocalDate hoje = LocalDate.now();
+        LocalDate limite = hoje.minusDays(JANELA_DIAS);
+
+        long prontuariosHoje = 0;
+        long novosRegistros = 0;
+
+        for (Map.Entry<LocalDate, LongAdder> balde : consultasPorDia.entrySet()) {
+            if (balde.getKey().isAfter(limite)) {
+                long total = balde.getValue().sum();
+                novosRegistros += total;
+                if (balde.getKey().equals(hoje)) prontuariosHoje = total;
+            }
+        }
+
+        return new DashboardStatsDTO(totalPacientes.get(), prontuariosHoje, novosRegistros);
+    }
+
+    public void pacienteCriado(Pacientes paciente) {
+        totalPacientes.incrementAndGet();
+        resumoService.marcar(paciente.getDataCadastro());
+    }
+
+    public void pacientesCriados(List<Pacientes> pacientes) {
+        totalPacientes.addAndGet(pacientes.size());
+        for (Pacientes paciente : pacientes) resumoService.marcar(paciente.getDataCadastro());
+    }
+
+    public void pacienteRemovido(Pacientes paciente) {
+        totalPacientes.decrementAndGet();
+        resumoService.marcar(paciente.getDataCadastro());
+    }
+
+    public void consultaCriada(LocalDate dataRegistro) {
+        ajustar(dataRegistro, 1);
+        resumoService.marcar(dataRegistro);
+    }
+
+    public void consultaRemovida(LocalDate dataRegistro) {
+        ajustar(dataRegistro, -1);
+        resumoService.marcar(dataRegistro);
+    }
+
+    // Também chamado quando a data não muda: o diagnóstico pode ter mudado
+    public void consultaAlterada(LocalDate dataAnterior, LocalDate dataNova) {
+        resumoService.marcar(dataAnterior);
+        resumoService.marcar(dataNova);
+        if (dataAnterior != null && dataAnterior.equals(dataNova)) return;
+        ajustar(dataAnterior, -1);
+        ajustar(dataNova, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${api.dashboard.reconciliacao-ms:300000}")
+    public void reconciliar() {
+        LocalDate limite = LocalDate.now().minusDays(JANELA_DIAS);
+
+        Map<LocalDate, LongAdder> novos = new ConcurrentHashMap<>();
+        List<Object[]> linhas = registroConsultasRepository.contarPorDiaApos(limite);
+        for (Object[] linha : linhas) {
+            LongAdder contador = new LongAdder();
+            contador.add((Long) linha[1]);
+            novos.put((LocalDate) linha[0], contador);
+        }
+
+        long pacientes = pacientesRepository.count();
+
+        totalPacientes.set(pacientes);
+        consultasPorDia = novos;
+
+        logger.debug("Dashboard reconciliado: {} pacientes, {} dias com consultas", pacientes, novos.size());
+    }
+
+    private void ajustar(LocalDate dataRegistro, long delta) {
+        // Datas fora da janela não entram em nenhum contador
+        if (dataRegistro == null || !dataRegistro.isAfter(LocalDate.now().minusDays(JANELA_DIAS))) return;
+
+        consultasPorDia.computeIfAbsent(dataRegistro, d -> new LongAdder()).add(delta);
+    }
+}
@@ -0,0 +1,179 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.CandidatoDuplicadoDTO;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.utils.ConjuntoLong;
+import com.Caminhar.api.utils.CpfVerif;
+import com.Caminhar.api.utils.NomeSimilar;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Detecção de pacientes repetidos. Os CPFs ativos ficam num conjunto de long em memória,
+// carregado na subida e mantido pelos services a cada escrita, então a checagem no cadastro
+// e na importação não vai ao banco; o índice único em cpf_numero continua sendo a garantia
+// final (outra instância, corrida entre a checagem e o commit). Para quem tem CPF diferente,
+// nome parecido + mesma data de nascimento aponta candidatos a duplicata.
+@Service
+// O esquema precisa existir antes da carga (ddl-auto)
+@DependsOn("entityManagerFactory")
+public class DuplicidadeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicidadeService.class);
+
+    private static final int LOTE_MIGRACAO = 1000;
+
+    private record Entrada(String nome, String nomeNormalizado) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${api.pacientes.duplicidade.similaridade:0.9}")
+    private double similaridadeMinima;
+
+    // Acesso sempre sob o lock deste objeto; cada operação custa poucas dezenas de ns
+    private final ConjuntoLong cpfs = new ConjuntoLong(1024);
+
+    private final Map<LocalDate, Map<Long, Entrada>> porNascimento = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void carregar() {
+        long inicio = System.currentTimeMillis();
+        List<Object[]> pendentes = new ArrayList<>();
+        long[] repetidos = {0};
+
+        jdbcTemplate.query("SELECT id, cpf, cpf_numero, nome_pas, data_nascimento FROM pacientes WHERE removido = false",
+                rs -> {
+                    long id = rs.getLong("id");
+                    Long numero = rs.getObject("cpf_numero", Long.class);
+                    adicionarNome(id, rs.getString("nome_pas"), rs.getObject("data_nascimento", LocalDate.class));
+
+                    // Linhas de antes da coluna cpf_numero: preenche a partir do cpf em texto
+                    if (numero == null) {
+                        long calculado = CpfVerif.normalizar(rs.getString("cpf"));
+                        if (calculado == CpfVerif.INVALIDO) return;
+                        if (!reservar(calculado)) {
+                            repetidos[0]++;
+                            return;
+                        }
+                        pendentes.add(new Object[]{calculado, id});
+                        if (pendentes.size() == LOTE_MIGRACAO) migrar(pendentes);
+                    } else {
+                        reservar(numero);
+                    }
+                });
+        if (!pendentes.isEmpty()) migrar(pendentes);
+
+        if (repetidos[0] > 0) {
+            logger.warn("{} pacientes ativos repetem o CPF de outro e ficaram sem cpf_numero", repetidos[0]);
+        }
+        logger.info("Índice de CPFs carregado com {} pacientes em {} ms", tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    private void migrar(List<Object[]> pendentes) {
+        jdbcTemplate.batchUpdate("UPDATE pacientes SET cpf_numero = ? WHERE id = ?", pendentes);
+        pendentes.clear();
+    }
+
+    // false se o CPF já pertence a um paciente ativo (ou está sendo gravado agora)
+    public synchronized boolean reservar(long cpf) {
+        return cpfs.adicionar(cpf);
+    }
+
+    public void reservarCpf(Long cpf) {
+        if (cpf != null && !reservar(cpf)) {
+            throw new RuntimeException("CPF já cadastrado");
+        }
+    }
+
+    public synchronized void liberar(Long cpf) {
+        if (cpf != null) cpfs.remover(cpf);
+    }
+
+    public synchronized boolean cadastrado(long cpf) {
+        return cpfs.contem(cpf);
+    }
+
+    public synchronized int tamanho() {
+        return cpfs.tamanho();
+    }
+
+    public void pacienteGravado(Pacientes paciente) {
+        adicionarNome(paciente.getId(), paciente.getNomePas(), paciente.getDataNascimento());
+    }
+
+    public void pacientesGravados(List<Pacientes> pacientes) {
+        for (Pacientes paciente : pacientes) pacienteGravado(paciente);
+    }
+
+    public void pacienteAlterado(Pacientes paciente, LocalDate nascimentoAnterior) {
+        removerNome(paciente.getId(), nascimentoAnterior);
+        pacienteGravado(paciente);
+    }
+
+    public void pacienteRemovido(Long id, Long cpf, LocalDate nascimento) {
+        liberar(cpf);
+        removerNome(id, nascimento);
+    }
+
+    // Pacientes com a mesma data de nascimento (ou com dia e mês trocados) e nome parecido
+    public List<CandidatoDuplicadoDTO> candidatos(String nome, LocalDate dataNascimento, Long ignorarId) {
+        if (dataNascimento == null || nome == null || nome.isBlank()) return List.of();
+
+        String alvo = NomeSimilar.normalizar(nome);
+        List<CandidatoDuplicadoDTO> candidatos = new ArrayList<>();
+
+        for (LocalDate data : datasProvaveis(dataNascimento)) {
+            Map<Long, Entrada> doDia = porNascimento.get(data);
+            if (doDia == null) continue;
+
+            doDia.forEach((id, entrada) -> {
+                if (id.equals(ignorarId)) return;
+                double similaridade = NomeSimilar.similaridade(alvo, entrada.nomeNormalizado());
+                if (similaridade >= similaridadeMinima) {
+                    candidatos.add(new CandidatoDuplicadoDTO(id, entrada.nome(), data, similaridade));
+                }
+            });
+        }
+
+        candidatos.sort(Comparator.comparingDouble(CandidatoDuplicadoDTO::similaridade).reversed());
+        return candidatos;
+    }
+
+    private List<LocalDate> datasProvaveis(LocalDate data) {
+        if (data.getDayOfMonth() == data.getMonthValue() || data.getDayOfMonth() > 12) return List.of(data);
+        return List.of(data, LocalDate.of(data.getYear(), data.getDayOfMonth(), data.getMonthValue()));
+    }
+
+    private void adicionarNome(Long id, String nome, LocalDate nascimento) {
+        if (nascimento == null || nome == null) return;
+        Entrada entrada = new Entrada(nome, NomeSimilar.normalizar(nome));
+        // Dentro do compute para não correr com a remoção do mapa vazio em removerNome
+        porNascimento.compute(nascimento, (d, doDia) -> {
+            if (doDia == null) doDia = new ConcurrentHashMap<>();
+            doDia.put(id, entrada);
+            return doDia;
+        });
+    }
+
+    private void removerNome(Long id, LocalDate nascimento) {
+        if (nascimento == null) return;
+        porNascimento.computeIfPresent(nascimento, (d, doDia) -> {
+            doDia.remove(id);
+            return doDia.isEmpty() ? null : doDia;
+        });
+    }
+}
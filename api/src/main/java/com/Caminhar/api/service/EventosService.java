@@ -0,0 +1,278 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.DashboardStatsDTO;
+import com.Caminhar.api.DTO.EventoDTO;
+import com.Caminhar.api.utils.AnelEventos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// Barramento de eventos do /events (Server-Sent Events). Os services publicam num anel sem locks;
+// uma thread distribui cada evento para a fila de cada conexão. Conexão parada não ocupa thread
+// (requisição assíncrona do Tomcat): só o envio usa uma thread virtual, e só enquanto há o que
+// mandar. Cada fila é limitada; se o cliente não acompanha, a fila é descartada e ele recebe
+// um único "resync" para recarregar a tela. As estatísticas do dashboard nunca se acumulam:
+// a conexão guarda só a mais recente.
+@Service
+public class EventosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventosService.class);
+
+    public static final String PACIENTE = "paciente";
+    public static final String REGISTRO = "registro";
+
+    public static final String CRIADO = "criado";
+    public static final String ALTERADO = "alterado";
+    public static final String REMOVIDO = "removido";
+    public static final String IMPORTADO = "importado";
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.eventos.max-conexoes:10000}")
+    private int maxConexoes;
+
+    @Value("${api.eventos.fila:256}")
+    private int tamanhoFila;
+
+    // Conexões são encerradas de tempos em tempos; o EventSource do navegador reconecta sozinho
+    @Value("${api.eventos.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${api.eventos.intervalo-ms:50}")
+    private long intervaloMs;
+
+    private final AnelEventos<EventoDTO> anel = new AnelEventos<>(4096);
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService envio = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile DashboardStatsDTO ultimasEstatisticas;
+
+    private volatile boolean ativo = true;
+
+    private Thread distribuidor;
+
+    private Counter atrasos;
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("api.eventos.conexoes", assinantes, Set::size)
+                .description("Conexões abertas no /events")
+                .register(meterRegistry);
+        atrasos = Counter.builder("api.eventos.atrasos")
+                .description("Filas de conexões lentas descartadas (o cliente recebe resync)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarDistribuidor() {
+        distribuidor = new Thread(this::distribuirContinuamente, "eventos");
+        distribuidor.setDaemon(true);
+        distribuidor.start();
+    }
+
+    // Antes do desligamento gracioso do Tomcat, que senão esperaria as conexões abertas até o timeout
+    @EventListener(ContextClosedEvent.class)
+    public void parar() {
+        ativo = false;
+        for (Assinante assinante : assinantes) assinante.emitter.complete();
+        envio.shutdown();
+    }
+
+    // null quando o limite de conexões foi atingido
+    public SseEmitter inscrever() {
+        if (assinantes.size() >= maxConexoes) return null;
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(e -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+
+        // O cliente já começa com os números atuais, sem precisar chamar /dashboard/stats
+        assinante.estatisticas(dashboardService.estatisticas());
+        return emitter;
+    }
+
+    public void publicar(String tipo, String acao, Long id, long versao) {
+        // Ninguém ouvindo: nada a fazer
+        if (assinantes.isEmpty()) return;
+        if (!anel.oferecer(new EventoDTO(tipo, acao, id, versao))) {
+            // Anel cheio: todos vão receber resync de qualquer forma
+            for (Assinante assinante : assinantes) assinante.atrasar();
+        }
+    }
+
+    // Os contadores mudam a cada escrita; o envio sai no máximo uma vez por intervalo e só se mudou
+    @Scheduled(fixedDelayString = "${api.eventos.estatisticas-ms:2000}")
+    public void publicarEstatisticas() {
+        if (assinantes.isEmpty()) return;
+        DashboardStatsDTO atuais = dashboardService.estatisticas();
+        if (atuais.equals(ultimasEstatisticas)) return;
+        ultimasEstatisticas = atuais;
+        for (Assinante assinante : assinantes) assinante.estatisticas(atuais);
+    }
+
+    // Comentário SSE vazio: mantém proxies abertos e detecta conexões mortas
+    @Scheduled(fixedDelayString = "${api.eventos.ping-ms:25000}")
+    public void ping() {
+        for (Assinante assinante : assinantes) assinante.ping();
+    }
+
+    public int conexoes() {
+        return assinantes.size();
+    }
+
+    private void distribuirContinuamente() {
+        List<EventoDTO> eventos = new ArrayList<>(256);
+        while (ativo) {
+            if (anel.drenar(eventos, 256) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervaloMs));
+                continue;
+            }
+            for (Assinante assinante : assinantes) {
+                for (EventoDTO evento : eventos) assinante.enfileirar(evento);
+            }
+            eventos.clear();
+        }
+    }
+
+    private final class Assinante {
+
+        final SseEmitter emitter;
+
+        // Estado protegido pelo lock do próprio assinante
+        final ArrayDeque<EventoDTO> fila = new ArrayDeque<>();
+        DashboardStatsDTO estatisticas;
+        DashboardStatsDTO enviadas;
+        boolean atrasado;
+        boolean ping;
+
+        // No máximo um envio em andamento por conexão, para manter a ordem
+        final AtomicBoolean enviando = new AtomicBoolean();
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enfileirar(EventoDTO evento) {
+            synchronized (this) {
+                if (atrasado) return;
+                if (fila.size() >= tamanhoFila) {
+                    fila.clear();
+                    atrasado = true;
+                    atrasos.increment();
+                } else {
+                    fila.add(evento);
+                }
+            }
+            agendar();
+        }
+
+        void atrasar() {
+            synchronized (this) {
+                fila.clear();
+                atrasado = true;
+            }
+            agendar();
+        }
+
+        void estatisticas(DashboardStatsDTO novas) {
+            synchronized (this) {
+                if (novas.equals(enviadas)) return;
+                estatisticas = novas;
+            }
+            agendar();
+        }
+
+        void ping() {
+            synchronized (this) {
+                ping = true;
+            }
+            agendar();
+        }
+
+        private synchronized boolean temPendente() {
+            return atrasado || estatisticas != null || ping || !fila.isEmpty();
+        }
+
+        private void agendar() {
+            if (enviando.compareAndSet(false, true)) {
+                try {
+                    envio.execute(this::enviar);
+                } catch (RuntimeException e) {
+                    // Executor encerrado (desligando)
+                    enviando.set(false);
+                }
+            }
+        }
+
+        private void enviar() {
+            try {
+                do {
+                    SseEmitter.SseEventBuilder proximo;
+                    while ((proximo = proximo()) != null) {
+                        emitter.send(proximo);
+                    }
+                    enviando.set(false);
+                    // Algo pode ter chegado entre o último proximo() e liberar o envio
+                } while (temPendente() && enviando.compareAndSet(false, true));
+            } catch (Exception e) {
+                // Cliente foi embora (ou a conexão já fechou): a conexão sai da lista
+                logger.debug("Encerrando conexão do /events: {}", e.getMessage());
+                assinantes.remove(this);
+                emitter.completeWithError(e);
+                enviando.set(false);
+            }
+        }
+
+        private synchronized SseEmitter.SseEventBuilder proximo() {
+            if (atrasado) {
+                atrasado = false;
+                return SseEmitter.event().name("resync").data("");
+            }
+            if (estatisticas != null) {
+                enviadas = estatisticas;
+                estatisticas = null;
+                return SseEmitter.event().name("estatisticas").data(enviadas);
+            }
+            EventoDTO evento = fila.poll();
+            if (evento != null) {
+                return SseEmitter.event().name(evento.tipo()).id(Long.toString(evento.versao())).data(evento);
+            }
+            if (ping) {
+                ping = false;
+                return SseEmitter.event().comment("");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.PacientesResponseDTO;
+import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.model.AcaoAuditoria;
+import com.Caminhar.api.service.ImportacaoPacientesService.Formato;
+import com.Caminhar.api.utils.CsvLinha;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Exportação completa de pacientes e registros em CSV ou NDJSON. Lê em lotes por chave (id > último)
+// com JDBC puro, cada lote numa consulta curta fora de transação: a conexão volta ao pool antes do
+// lote ser escrito, nenhuma transação fica aberta durante a exportação e a memória depende só do
+// tamanho do lote. Não é uma foto do instante inicial: linhas alteradas no meio saem como estiverem.
+//
+// Os registros de meses arquivados saem depois dos do banco, segmento a segmento. A lista de segmentos é
+// lida só no fim: um mês arquivado durante a exportação pode sair duas vezes, mas nunca fica de fora.
+@Service
+public class ExportacaoService {
+
+    private static final String SQL_PACIENTES = """
+            SELECT id, cpf, nome_pas, data_nascimento, cep, telefone, endereco, observacoes, obito, versao
+            FROM pacientes
+            WHERE removido = false AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String SQL_REGISTROS = """
+            SELECT id, consulta, sintomas, diagnostico, exames, data_registro, paciente_id, versao
+            FROM registro_consultas
+            WHERE removido = false AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    // Mesmos nomes de coluna que a importação aceita, para o CSV de pacientes voltar pelo /pacientes/importar
+    private static final Object[] CABECALHO_PACIENTES =
+            {"id", "cpf", "nomePas", "dataNascimento", "cep", "telefone", "endereco", "observacoes", "obito"};
+
+    private static final Object[] CABECALHO_REGISTROS =
+            {"id", "consulta", "sintomas", "diagnostico", "exames", "dataRegistro", "pacienteId"};
+
+    private static final RowMapper<PacientesResponseDTO> PACIENTE = (rs, i) -> new PacientesResponseDTO(
+            rs.getLong("id"), rs.getString("cpf"), rs.getString("nome_pas"),
+            rs.getObject("data_nascimento", LocalDate.class), rs.getString("cep"), rs.getString("telefone"),
+            rs.getString("endereco"), rs.getString("observacoes"), rs.getBoolean("obito"), rs.getLong("versao"));
+
+    // Também usado pelo ArquivoRegistrosService: os segmentos arquivados têm o mesmo formato do NDJSON exportado
+    static final RowMapper<RegistroConsultaResponseDTO> REGISTRO = (rs, i) -> new RegistroConsultaResponseDTO(
+            rs.getLong("id"), rs.getString("consulta"), rs.getString("sintomas"), rs.getString("diagnostico"),
+            rs.getString("exames"), rs.getObject("data_registro", LocalDate.class), rs.getObject("paciente_id", Long.class),
+            rs.getLong("versao"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private ArquivoRegistrosService arquivoRegistros;
+
+    @Value("${api.exportacao.lote:1000}")
+    private int tamanhoLote;
+
+    private JdbcTemplate jdbc;
+
+    @PostConstruct
+    void init() {
+        // Template próprio para não mudar o fetch size das outras consultas
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.setFetchSize(tamanhoLote);
+    }
+
+    public void exportarPacientes(Formato formato, OutputStream saida) throws IOException {
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.PACIENTE, null, null,
+                "exportacao " + formato.name().toLowerCase());
+        exportar(formato, saida, SQL_PACIENTES, PACIENTE, PacientesResponseDTO::id, CABECALHO_PACIENTES,
+                p -> new Object[]{p.id(), p.cpf(), p.nome(), p.dataNascimento(), p.cep(), p.telefone(),
+                        p.endereco(), p.observacoes(), p.obito()}, null);
+    }
+
+    public void exportarRegistros(Formato formato, OutputStream saida) throws IOException {
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.REGISTRO, null, null,
+                "exportacao " + formato.name().toLowerCase());
+        exportar(formato, saida, SQL_REGISTROS, REGISTRO, RegistroConsultaResponseDTO::id, CABECALHO_REGISTROS,
+                r -> new Object[]{r.id(), r.consulta(), r.sintomas(), r.diagnostico(), r.exames(),
+                        r.dataRegistro(), r.pacienteId()}, arquivoRegistros::percorrer);
+    }
+
+    // "arquivados" entrega, depois das linhas do banco, o que já não está nele (null: nada)
+    private <T> void exportar(Formato formato, OutputStream saida, String sql, RowMapper<T> mapper,
+                              Function<T, Long> idDe, Object[] cabecalho, Function<T, Object[]> colunas,
+                              Consumer<Consumer<T>> arquivados) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter json = objectMapper.writer();
+        StringBuilder linha = new StringBuilder(512);
+
+        if (formato == Formato.CSV) {
+            CsvLinha.juntar(linha, ',', cabecalho);
+            writer.write(linha.append('\n').toString());
+        }
+
+        long ultimo = 0;
+        List<T> lote;
+        do {
+            lote = jdbc.query(sql, mapper, ultimo, tamanhoLote);
+
+            for (T item : lote) escrever(formato, writer, json, linha, colunas.apply(item), item);
+
+            if (!lote.isEmpty()) ultimo = idDe.apply(lote.get(lote.size() - 1));
+            // Entrega o lote ao cliente antes de buscar o próximo
+            writer.flush();
+        } while (lote.size() == tamanhoLote);
+
+        if (arquivados == null) return;
+        try {
+            arquivados.accept(item -> {
+                try {
+                    escrever(formato, writer, json, linha, colunas.apply(item), item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void escrever(Formato formato, Writer writer, ObjectWriter json, StringBuilder linha,
+                                 Object[] colunas, Object item) throws IOException {
+        if (formato == Formato.CSV) {
+            linha.setLength(0);
+            CsvLinha.juntar(linha, ',', colunas);
+            writer.write(linha.append('\n').toString());
+        } else {
+            writer.write(json.writeValueAsString(item));
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.ErroImportacaoDTO;
+import com.Caminhar.api.DTO.ImportacaoResultadoDTO;
+import com.Caminhar.api.DTO.PacientesRequestDTO;
+import com.Caminhar.api.infra.web.VersaoTabelas;
+import com.Caminhar.api.model.AcaoAuditoria;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.utils.CpfVerif;
+import com.Caminhar.api.utils.CsvLinha;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Importação em massa de pacientes: lê o arquivo registro a registro, valida os CPFs do lote em paralelo
+// e grava cada lote numa transação própria com insert em lote JDBC. A memória usada depende
+// só do tamanho do lote, não do tamanho do arquivo.
+@Service
+public class ImportacaoPacientesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoPacientesService.class);
+
+    // Tamanho máximo de um registro CSV que ocupa várias linhas
+    private static final int MAX_REGISTRO = 1 << 20;
+
+    public enum Formato { CSV, NDJSON }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private VersaoTabelas versaoTabelas;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private DuplicidadeService duplicidadeService;
+
+    @Autowired
+    private EventosService eventosService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${api.importacao.lote:500}")
+    private int tamanhoLote;
+
+    @Value("${api.importacao.max-erros:1000}")
+    private int maxErros;
+
+    private static class Linha {
+        final long numero;
+        PacientesRequestDTO dto;
+        long cpf = CpfVerif.INVALIDO;
+        String erro;
+
+        Linha(long numero) {
+            this.numero = numero;
+        }
+    }
+
+    private static class Resultado {
+        long totalLinhas;
+        long importados;
+        long comErro;
+        final List<ErroImportacaoDTO> erros = new ArrayList<>();
+    }
+
+    public ImportacaoResultadoDTO importar(InputStream entrada, Formato formato) throws IOException {
+        Resultado resultado = new Resultado();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            Map<String, Integer> colunas = null;
+            char separador = ',';
+            long numero = 0;
+            List<Linha> lote = new ArrayList<>(tamanhoLote);
+
+            String texto;
+            while ((texto = reader.readLine()) != null) {
+                numero++;
+                long inicio = numero;
+
+                String erroRegistro = null;
+                if (formato == Formato.CSV && CsvLinha.aspasAbertas(texto)) {
+                    // Campo entre aspas com quebra de linha, como a exportação escreve: o registro continua
+                    StringBuilder registro = new StringBuilder(texto);
+                    boolean abertas = true;
+                    String continuacao;
+                    while (abertas && (continuacao = reader.readLine()) != null) {
+                        numero++;
+                        registro.append('\n').append(continuacao);
+                        abertas ^= CsvLinha.aspasAbertas(continuacao);
+                        if (abertas && registro.length() > MAX_REGISTRO) {
+                            // Aspas sem fechamento não podem engolir o resto do arquivo
+                            erroRegistro = "Campo entre aspas sem fechamento";
+                            break;
+                        }
+                    }
+                    texto = registro.toString();
+                }
+                if (texto.isBlank()) continue;
+
+                if (formato == Formato.CSV && colunas == null) {
+                    separador = texto.indexOf(';') >= 0 ? ';' : ',';
+                    colunas = cabecalho(CsvLinha.dividir(texto, separador));
+                    continue;
+                }
+
+                Linha linha = new Linha(inicio);
+                try {
+                    if (erroRegistro != null) throw new IllegalArgumentException(erroRegistro);
+                    linha.dto = formato == Formato.CSV
+                            ? lerCsv(CsvLinha.dividir(texto, separador), colunas)
+                            : semObitoNulo(objectMapper.readValue(texto, PacientesRequestDTO.class));
+                } catch (Exception e) {
+                    linha.erro = "Linha mal formatada: " + e.getMessage();
+                }
+                lote.add(linha);
+
+                if (lote.size() >= tamanhoLote) {
+                    processarLote(lote, transacao, resultado);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+
+            if (!lote.isEmpty()) processarLote(lote, transacao, resultado);
+        }
+
+        auditoriaService.registrar(AcaoAuditoria.IMPORTACAO, AuditoriaService.PACIENTE, null, null,
+                "importados=" + resultado.importados + ", comErro=" + resultado.comErro);
+
+        return new ImportacaoResultadoDTO(resultado.totalLinhas, resultado.importados, resultado.comErro, resultado.erros);
+    }
+
+    private void processarLote(List<Linha> lote, TransactionTemplate transacao, Resultado resultado) {
+        // Validação dos CPFs em paralelo; cada linha só escreve no próprio objeto
+        lote.parallelStream()
+                .filter(l -> l.erro == null)
+                .forEach(l -> {
+                    l.cpf = CpfVerif.normalizar(l.dto.cpf());
+                    if (l.cpf == CpfVerif.INVALIDO) l.erro = "CPF inválido";
+                });
+
+        // Repetidos (na base ou no próprio arquivo) em sequência, na ordem das linhas
+        for (Linha linha : lote) {
+            if (linha.erro == null && !duplicidadeService.reservar(linha.cpf)) linha.erro = "CPF já cadastrado";
+        }
+
+        List<Linha> validas = lote.stream().filter(l -> l.erro == null).toList();
+
+        if (!validas.isEmpty()) {
+            try {
+                List<Pacientes> gravados = new ArrayList<>(validas.size());
+                syncService.gravarLote(validas.size(), primeira -> transacao.executeWithoutResult(status -> {
+                    // Carga em massa não ocupa o cache de segundo nível
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+                    long versao = primeira;
+                    for (Linha linha : validas) {
+                        Pacientes paciente = new Pacientes(linha.dto);
+                        paciente.setVersaoSync(versao++);
+                        entityManager.persist(paciente);
+                        gravados.add(paciente);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                }));
+                resultado.importados += validas.size();
+                versaoTabelas.alterada(VersaoTabelas.Tabela.PACIENTES);
+                duplicidadeService.pacientesGravados(gravados);
+                // Um aviso por lote, não por paciente
+                eventosService.publicar(EventosService.PACIENTE, EventosService.IMPORTADO, null,
+                        gravados.get(gravados.size() - 1).getVersaoSync());
+                dashboardService.pacientesCriados(gravados);
+                buscaService.indexarPacientes(gravados);
+            } catch (RuntimeException e) {
+                logger.error("Falha ao gravar lote da importação de pacientes", e);
+                validas.forEach(l -> duplicidadeService.liberar(l.cpf));
+                validas.forEach(l -> l.erro = "Erro ao gravar o lote: " + e.getMessage());
+            }
+        }
+
+        for (Linha linha : lote) {
+            resultado.totalLinhas++;
+            if (linha.erro != null) {
+                resultado.comErro++;
+                // O relatório guarda no máximo maxErros linhas para a memória não crescer com o arquivo
+                if (resultado.erros.size() < maxErros) {
+                    resultado.erros.add(new ErroImportacaoDTO(linha.numero, linha.erro));
+                }
+            }
+        }
+    }
+
+    // A entidade usa boolean primitivo para obito
+    private PacientesRequestDTO semObitoNulo(PacientesRequestDTO dto) {
+        if (dto.obito() != null) return dto;
+        return new PacientesRequestDTO(dto.cpf(), dto.nomePas(), dto.dataNascimento(), dto.cep(),
+                dto.telefone(), dto.endereco(), dto.observacoes(), false);
+    }
+
+    private Map<String, Integer> cabecalho(List<String> nomes) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        if (!colunas.containsKey("cpf")) {
+            throw new RuntimeException("O cabeçalho do CSV precisa da coluna cpf");
+        }
+        return colunas;
+    }
+
+    private PacientesRequestDTO lerCsv(List<String> campos, Map<String, Integer> colunas) {
+        String nascimento = campo(campos, colunas, "datanascimento");
+        String obito = campo(campos, colunas, "obito");
+
+        return new PacientesRequestDTO(
+                campo(campos, colunas, "cpf"),
+                campo(campos, colunas, "nomepas") != null ? campo(campos, colunas, "nomepas") : campo(campos, colunas, "nome"),
+                nascimento != null ? LocalDate.parse(nascimento) : null,
+                campo(campos, colunas, "cep"),
+                campo(campos, colunas, "telefone"),
+                campo(campos, colunas, "endereco"),
+                campo(campos, colunas, "observacoes"),
+                Boolean.parseBoolean(obito)
+        );
+    }
+
+    private String campo(List<String> campos, Map<String, Integer> colunas, String nome) {
+        Integer indice = colunas.get(nome);
+        if (indice == null || indice >= campos.size()) return null;
+        String valor = campos.get(indice);
+        return valor.isEmpty() ? null : valor;
+    }
+}
@@ -1,34 +1,179 @@
 package com.Caminhar.api.service;
 
+import com.Caminhar.api.DTO.CandidatoDuplicadoDTO;
+import com.Caminhar.api.DTO.ItemLoteDTO;
+import com.Caminhar.api.DTO.PacientesPatchDTO;
 import com.Caminhar.api.DTO.PacientesRequestDTO;
 import com.Caminhar.api.DTO.PacientesResponseDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
+import com.Caminhar.api.infra.replicas.LeituraReplica;
+import com.Caminhar.api.infra.web.ConflitoEdicaoException;
+import com.Caminhar.api.infra.web.VersaoTabelas;
+import com.Caminhar.api.model.AcaoAuditoria;
 import com.Caminhar.api.utils.CpfVerif;
+import com.Caminhar.api.utils.Cursor;
+import com.Caminhar.api.utils.Lote;
 import com.Caminhar.api.model.Pacientes;
 import com.Caminhar.api.repository.PacientesRepository;
+import com.Caminhar.api.repository.RegistroConsultaRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@Timed("api.servico")
 public class PacientesService {
 
+    private static final String CONFLITO = "Paciente alterado por outro usuário; recarregue e tente de novo";
+    private static final String INDICE_CPF = "uk_pacientes_cpf_numero";
+
     @Autowired
     private PacientesRepository repository;
 
+    @Autowired
+    private RegistroConsultaRepository registroRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private VersaoTabelas versaoTabelas;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private DuplicidadeService duplicidadeService;
+
+    @Autowired
+    private EventosService eventosService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.paginacao.limite-padrao:50}")
+    private int limitePadrao;
+
+    @Value("${api.paginacao.limite-maximo:500}")
+    private int limiteMaximo;
+
+    @Value("${api.lote.max-ids:100}")
+    private int maxIdsLote;
+
+    @LeituraReplica
     public List<PacientesResponseDTO> listar(){
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.PACIENTE, null, null, "todos");
         return repository.findAll().stream().map(PacientesResponseDTO::new).toList();
     }
 
 
+    @LeituraReplica
+    public PaginaDTO<PacientesResponseDTO> listarPagina(String cursor, Integer limite) {
+        int tamanho = tamanhoPagina(limite);
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.PACIENTE, null, null, "pagina");
+
+        // Busca um registro a mais só para saber se existe próxima página
+        List<Pacientes> pacientes = repository.findByIdGreaterThanOrderByIdAsc(
+                Cursor.decodificarId(cursor), Limit.of(tamanho + 1));
+
+        String proximoCursor = null;
+        if (pacientes.size() > tamanho) {
+            pacientes = pacientes.subList(0, tamanho);
+            proximoCursor = Cursor.codificar(pacientes.get(tamanho - 1).getId());
+        }
+
+        return new PaginaDTO<>(pacientes.stream().map(PacientesResponseDTO::new).toList(), proximoCursor);
+    }
+
+
+    @LeituraReplica
+    public void escreverTodos(OutputStream out) throws IOException {
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.PACIENTE, null, null, "stream");
+        ObjectWriter writer = objectMapper.writerFor(PacientesResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Pacientes> pacientes = repository.streamTodos();
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+
+            gen.writeStartArray();
+
+            Iterator<Pacientes> it = pacientes.iterator();
+            while (it.hasNext()) {
+                Pacientes paciente = it.next();
+                writer.writeValue(gen, new PacientesResponseDTO(paciente));
+                // Solta a entidade do contexto de persistência para o heap não crescer com a tabela
+                entityManager.detach(paciente);
+            }
+
+            gen.writeEndArray();
+        }
+    }
+
+
+    private int tamanhoPagina(Integer limite) {
+        if (limite == null || limite <= 0) return limitePadrao;
+        return Math.min(limite, limiteMaximo);
+    }
+
+
+    @LeituraReplica
     public PacientesResponseDTO findById(Long id) {
-        Pacientes paciente = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Paciente não encontrado"));
+        Pacientes paciente = buscar(id);
+        auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.PACIENTE, id, id);
         return  new PacientesResponseDTO(paciente);
     }
 
 
+    // Vários pacientes numa única consulta (WHERE id IN ...), na ordem pedida
+    @LeituraReplica
+    public List<ItemLoteDTO<PacientesResponseDTO>> buscarLote(List<Long> ids) {
+        List<Long> distintos = Lote.idsDistintos(ids, maxIdsLote);
+
+        Map<Long, PacientesResponseDTO> porId = new HashMap<>();
+        for (Pacientes paciente : repository.findAllById(distintos)) {
+            if (paciente.isRemovido()) continue;
+            porId.put(paciente.getId(), new PacientesResponseDTO(paciente));
+            auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.PACIENTE, paciente.getId(), paciente.getId(), "lote");
+        }
+        return Lote.naOrdem(ids, porId);
+    }
+
+
     public PacientesResponseDTO criar(PacientesRequestDTO dto){
 
         if (!CpfVerif.cpfValido(dto.cpf())) {
@@ -37,24 +182,92 @@ public class PacientesService {
 
         Pacientes paciente = new Pacientes(dto);
 
-        repository.save(paciente);
+        // Reserva o CPF em memória antes de gravar; só é liberado se a gravação falhar
+        duplicidadeService.reservarCpf(paciente.getCpfNumero());
+        try {
+            syncService.gravar(versao -> {
+                paciente.setVersaoSync(versao);
+                repository.save(paciente);
+            });
+        } catch (RuntimeException e) {
+            duplicidadeService.liberar(paciente.getCpfNumero());
+            throw traduzir(e);
+        }
+        versaoTabelas.alterada(VersaoTabelas.Tabela.PACIENTES);
+        duplicidadeService.pacienteGravado(paciente);
+        dashboardService.pacienteCriado(paciente);
+        eventosService.publicar(EventosService.PACIENTE, EventosService.CRIADO, paciente.getId(), paciente.getVersaoSync());
+        buscaService.indexarPaciente(paciente);
+        auditoriaService.registrar(AcaoAuditoria.CRIACAO, AuditoriaService.PACIENTE, paciente.getId(), paciente.getId());
 
         return new PacientesResponseDTO(paciente);
     }
 
 
-    public PacientesResponseDTO atualizar(Long id, PacientesRequestDTO dto) {
+    public PacientesResponseDTO atualizar(Long id, PacientesRequestDTO dto, long versaoLida) {
 
         if (!CpfVerif.cpfValido(dto.cpf())) {
             throw new RuntimeException("CPF inválido");
         }
 
-        Pacientes paciente = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Paciente não encontrado"));
+        Pacientes paciente = buscar(id);
+        conferirVersao(paciente, versaoLida);
+        Long cpfAnterior = paciente.getCpfNumero();
+        LocalDate nascimentoAnterior = paciente.getDataNascimento();
 
         paciente.atualizar(dto);
 
-        repository.save(paciente);
+        return gravarEdicao(paciente, cpfAnterior, nascimentoAnterior);
+    }
+
+
+    // PATCH: só os campos enviados mudam e só as colunas alteradas vão no UPDATE (@DynamicUpdate)
+    public PacientesResponseDTO alterar(Long id, PacientesPatchDTO dto, long versaoLida) {
+
+        if (dto.cpf() != null && !CpfVerif.cpfValido(dto.cpf())) {
+            throw new RuntimeException("CPF inválido");
+        }
+
+        Pacientes paciente = buscar(id);
+        conferirVersao(paciente, versaoLida);
+        Long cpfAnterior = paciente.getCpfNumero();
+        LocalDate nascimentoAnterior = paciente.getDataNascimento();
+
+        paciente.aplicar(dto);
+
+        return gravarEdicao(paciente, cpfAnterior, nascimentoAnterior);
+    }
+
+
+    // Falha logo se o cliente editou uma versão antiga; a corrida até o commit fica com o @Version
+    private void conferirVersao(Pacientes paciente, long versaoLida) {
+        if (paciente.getVersao() == null || paciente.getVersao() != versaoLida) {
+            throw new ConflitoEdicaoException(CONFLITO);
+        }
+    }
+
+
+    private PacientesResponseDTO gravarEdicao(Pacientes paciente, Long cpfAnterior, LocalDate nascimentoAnterior) {
+        Long id = paciente.getId();
+
+        boolean trocouCpf = !Objects.equals(cpfAnterior, paciente.getCpfNumero());
+        if (trocouCpf) duplicidadeService.reservarCpf(paciente.getCpfNumero());
+        try {
+            syncService.gravar(versao -> {
+                paciente.setVersaoSync(versao);
+                // O merge devolve outra instância; a versão incrementada vem nela
+                paciente.setVersao(repository.save(paciente).getVersao());
+            });
+        } catch (RuntimeException e) {
+            if (trocouCpf) duplicidadeService.liberar(paciente.getCpfNumero());
+            throw traduzir(e);
+        }
+        if (trocouCpf) duplicidadeService.liberar(cpfAnterior);
+        duplicidadeService.pacienteAlterado(paciente, nascimentoAnterior);
+        versaoTabelas.alterada(VersaoTabelas.Tabela.PACIENTES);
+        eventosService.publicar(EventosService.PACIENTE, EventosService.ALTERADO, id, paciente.getVersaoSync());
+        buscaService.indexarPaciente(paciente);
+        auditoriaService.registrar(AcaoAuditoria.ALTERACAO, AuditoriaService.PACIENTE, id, id);
 
         return new PacientesResponseDTO(paciente);
     }
@@ -62,10 +275,63 @@ public class PacientesService {
 
     public void deletar(Long id) {
 
-        Pacientes paciente = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Paciente não encontrado"));
+        Pacientes paciente = buscar(id);
+        Long cpf = paciente.getCpfNumero();
+
+        // Remoção lógica: a linha fica como marcação para os clientes do /sync.
+        // O CPF sai do índice único para o paciente poder ser cadastrado de novo.
+        syncService.gravar(versao -> transactionTemplate.executeWithoutResult(status -> {
+            paciente.setRemovido(true);
+            paciente.setCpfNumero(null);
+            paciente.setVersaoSync(versao);
+            repository.save(paciente);
+            registroRepository.desvincularPaciente(id, versao);
+        }));
+        // Os registros do paciente ficam com paciente_id nulo
+        versaoTabelas.alteradas(VersaoTabelas.Tabela.PACIENTES, VersaoTabelas.Tabela.REGISTROS);
+        duplicidadeService.pacienteRemovido(id, cpf, paciente.getDataNascimento());
+        dashboardService.pacienteRemovido(paciente);
+        eventosService.publicar(EventosService.PACIENTE, EventosService.REMOVIDO, id, paciente.getVersaoSync());
+        buscaService.removerPaciente(id);
+        auditoriaService.registrar(AcaoAuditoria.REMOCAO, AuditoriaService.PACIENTE, id, id);
+    }
+
+
+    public List<CandidatoDuplicadoDTO> possiveisDuplicados(String nome, LocalDate dataNascimento, Long ignorarId) {
+        return duplicidadeService.candidatos(nome, dataNascimento, ignorarId);
+    }
+
 
-        repository.delete(paciente);
+    // O índice único de cpf_numero barra o que a checagem em memória não viu (outra instância)
+    // e o @Version barra a edição concorrente que passou da checagem inicial. Outras violações
+    // (coluna nula, texto longo demais) seguem como vieram.
+    private RuntimeException traduzir(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException && violouIndiceCpf(e)) {
+            return new RuntimeException("CPF já cadastrado");
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return new ConflitoEdicaoException(CONFLITO);
+        }
+        return e;
+    }
+
+
+    private static boolean violouIndiceCpf(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null
+                    && violacao.getConstraintName().toLowerCase(Locale.ROOT).contains(INDICE_CPF)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    // O cache de segundo nível pode devolver a entidade já marcada como removida
+    private Pacientes buscar(Long id) {
+        return repository.findById(id)
+                .filter(p -> !p.isRemovido())
+                .orElseThrow(() -> new RuntimeException("Paciente não encontrado"));
     }
 }
 
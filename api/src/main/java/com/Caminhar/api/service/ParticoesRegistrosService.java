@@ -0,0 +1,179 @@
+package com.Caminhar.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.TreeSet;
+
+// Partições mensais de registro_consultas por data_registro (só no PostgreSQL; no H2 a tabela fica comum).
+// Consultas com intervalo de data (contagens do dashboard, páginas por data, resumo diário) só leem as
+// partições dos meses pedidos, e o ArquivoRegistrosService tira meses inteiros do banco.
+//
+// O ddl-auto cria a tabela comum; na primeira subida com PostgreSQL ela é convertida aqui numa única
+// transação. Numa tabela particionada a chave precisa incluir data_registro, que aceita nulo; no lugar
+// da chave primária fica o índice único (id, data_registro) com NULLS NOT DISTINCT (PostgreSQL 15 ou
+// mais novo), que também serve as buscas por id. O id vem da sequence. Linhas sem data ou de meses sem
+// partição ficam na partição padrão até a partição do mês ser criada.
+@Service
+public class ParticoesRegistrosService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParticoesRegistrosService.class);
+
+    private static final String TABELA = "registro_consultas";
+    private static final String PADRAO = "registro_consultas_padrao";
+    private static final String CHAVE = "uk_registro_consultas_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${api.registros.particoes.meses-adiante:3}")
+    private int mesesAdiante;
+
+    private volatile boolean particionada;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isPostgres()) return;
+
+        try {
+            String tipo = jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)",
+                    String.class, TABELA);
+            if ("r".equals(tipo)) {
+                long inicio = System.currentTimeMillis();
+                transactionTemplate.executeWithoutResult(status -> converter());
+                logger.info("Tabela {} convertida para partições mensais em {} ms", TABELA, System.currentTimeMillis() - inicio);
+            }
+            particionada = true;
+            criarProximas();
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível particionar {}: {}", TABELA, e.getMessage());
+        }
+    }
+
+    public boolean particionada() {
+        return particionada;
+    }
+
+    // Nome da partição do mês, se ela existir
+    public String particao(YearMonth mes) {
+        if (!particionada) return null;
+        String nome = nome(mes);
+        return existe(nome) ? nome : null;
+    }
+
+    // Mantém o mês atual e os próximos sempre com partição própria
+    @Scheduled(cron = "${api.registros.particoes.cron:0 0 3 * * *}")
+    public void criarProximas() {
+        if (!particionada) return;
+        YearMonth atual = YearMonth.now();
+        for (int i = 0; i <= mesesAdiante; i++) {
+            try {
+                criar(atual.plusMonths(i));
+            } catch (DataAccessException e) {
+                logger.warn("Não foi possível criar a partição de {}: {}", atual.plusMonths(i), e.getMessage());
+            }
+        }
+    }
+
+    private void converter() {
+        // Definições lidas antes da troca: os nomes dos índices e das chaves continuam os mesmos
+        List<String> indices = jdbcTemplate.queryForList("""
+                SELECT indexdef FROM pg_indexes
+                WHERE schemaname = current_schema() AND tablename = ?
+                  AND indexname NOT IN (SELECT conname FROM pg_constraint
+                                        WHERE conrelid = to_regclass(?) AND contype IN ('p', 'u'))
+                """, String.class, TABELA, TABELA);
+        List<String> chaves = jdbcTemplate.queryForList("""
+                SELECT 'ALTER TABLE registro_consultas ADD CONSTRAINT ' || quote_ident(conname) || ' ' || pg_get_constraintdef(oid)
+                FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'
+                """, String.class, TABELA);
+
+        jdbcTemplate.execute("LOCK TABLE registro_consultas IN ACCESS EXCLUSIVE MODE");
+        long proximoId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM registro_consultas", Long.class);
+
+        jdbcTemplate.execute("ALTER TABLE registro_consultas RENAME TO registro_consultas_antiga");
+        jdbcTemplate.execute("""
+                CREATE TABLE registro_consultas (LIKE registro_consultas_antiga INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+                PARTITION BY RANGE (data_registro)
+                """);
+
+        // Coluna identity não é aceita em tabela particionada antes do PostgreSQL 17
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS registro_consultas_seq OWNED BY registro_consultas.id");
+        jdbcTemplate.queryForObject("SELECT setval('registro_consultas_seq', ?, false)", Long.class, proximoId);
+        jdbcTemplate.execute("ALTER TABLE registro_consultas ALTER COLUMN id SET DEFAULT nextval('registro_consultas_seq')");
+
+        jdbcTemplate.execute("CREATE TABLE " + PADRAO + " PARTITION OF registro_consultas DEFAULT");
+        TreeSet<YearMonth> meses = new TreeSet<>();
+        jdbcTemplate.query("SELECT DISTINCT CAST(date_trunc('month', data_registro) AS date) FROM registro_consultas_antiga WHERE data_registro IS NOT NULL",
+                rs -> { meses.add(YearMonth.from(rs.getObject(1, LocalDate.class))); });
+        for (YearMonth mes : meses) criar(mes);
+
+        int copiadas = jdbcTemplate.update("INSERT INTO registro_consultas SELECT * FROM registro_consultas_antiga");
+        jdbcTemplate.execute("DROP TABLE registro_consultas_antiga");
+
+        // Criados na tabela particionada, valem para as partições atuais e futuras
+        for (String indice : indices) jdbcTemplate.execute(indice);
+        int versaoServidor = jdbcTemplate.queryForObject("SHOW server_version_num", Integer.class);
+        jdbcTemplate.execute("CREATE UNIQUE INDEX " + CHAVE + " ON registro_consultas (id, data_registro)"
+                + (versaoServidor >= 150000 ? " NULLS NOT DISTINCT" : ""));
+        for (String chave : chaves) jdbcTemplate.execute(chave);
+        jdbcTemplate.execute("ANALYZE registro_consultas");
+
+        logger.info("{} registros copiados para {} partições mensais", copiadas, meses.size());
+    }
+
+    // A partição nasce avulsa, recebe as linhas do mês que estavam na padrão e só então é anexada:
+    // anexar com essas linhas ainda na padrão falharia
+    private void criar(YearMonth mes) {
+        String nome = nome(mes);
+        if (existe(nome)) return;
+
+        LocalDate inicio = mes.atDay(1);
+        LocalDate fim = mes.plusMonths(1).atDay(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + nome + " (LIKE registro_consultas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.update("WITH movidas AS (DELETE FROM " + PADRAO + " WHERE data_registro >= ? AND data_registro < ? RETURNING *) "
+                    + "INSERT INTO " + nome + " SELECT * FROM movidas", inicio, fim);
+            jdbcTemplate.execute("ALTER TABLE registro_consultas ATTACH PARTITION " + nome
+                    + " FOR VALUES FROM ('" + inicio + "') TO ('" + fim + "')");
+        });
+        logger.info("Partição {} criada", nome);
+    }
+
+    private boolean existe(String nome) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, nome);
+    }
+
+    private static String nome(YearMonth mes) {
+        return String.format("registro_consultas_%d_%02d", mes.getYear(), mes.getMonthValue());
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -1,53 +1,314 @@
 package com.Caminhar.api.service;
 
+import com.Caminhar.api.DTO.ItemLoteDTO;
+import com.Caminhar.api.DTO.RegistroConsultaPatchDTO;
 import com.Caminhar.api.DTO.RegistroConsultaRequestDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
 import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.DTO.RegistroConsultaResumoDTO;
+import com.Caminhar.api.infra.replicas.LeituraReplica;
+import com.Caminhar.api.infra.web.ConflitoEdicaoException;
+import com.Caminhar.api.infra.web.VersaoTabelas;
+import com.Caminhar.api.model.AcaoAuditoria;
+import com.Caminhar.api.model.Pacientes;
 import com.Caminhar.api.model.RegistroConsultas;
+import com.Caminhar.api.repository.PacientesRepository;
 import com.Caminhar.api.repository.RegistroConsultaRepository;
+import com.Caminhar.api.utils.Cursor;
+import com.Caminhar.api.utils.Lote;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
+@Timed("api.servico")
 public class RegistroConsultaService {
 
+    private static final String CONFLITO = "Registro alterado por outro usuário; recarregue e tente de novo";
+
     @Autowired
     private RegistroConsultaRepository repository;
 
+    @Autowired
+    private PacientesRepository pacientesRepository;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private VersaoTabelas versaoTabelas;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private EventosService eventosService;
+
+    @Autowired
+    private ArquivoRegistrosService arquivoRegistros;
+
+    // Limites usados quando o cliente não informa o período (cabem no tipo date do Postgres)
+    private static final LocalDate DATA_MINIMA = LocalDate.of(1900, 1, 1);
+    private static final LocalDate DATA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    @Value("${api.paginacao.limite-padrao:50}")
+    private int limitePadrao;
+
+    @Value("${api.paginacao.limite-maximo:500}")
+    private int limiteMaximo;
+
+    @Value("${api.lote.max-ids:100}")
+    private int maxIdsLote;
+
+    @LeituraReplica
     public List<RegistroConsultaResponseDTO> listar() {
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.REGISTRO, null, null, "todos");
         return repository.findAll()
                 .stream()
                 .map(RegistroConsultaResponseDTO::new)
                 .toList();
     }
 
+    @LeituraReplica
+    public PaginaDTO<?> listarPagina(String cursor, Integer limite, LocalDate inicio, LocalDate fim, boolean completo) {
+        int tamanho = tamanhoPagina(limite);
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.REGISTRO, null, null,
+                completo ? "pagina completa" : "pagina");
+
+        LocalDate de = inicio != null ? inicio : DATA_MINIMA;
+        LocalDate ate = fim != null ? fim : DATA_MAXIMA;
+        Cursor.Posicao posicao = Cursor.decodificarPosicao(cursor);
+        boolean semPeriodo = inicio == null && fim == null;
+
+        if (completo) {
+            List<RegistroConsultas> registros = buscarPorData(posicao, ate, tamanho, semPeriodo,
+                    (data, id, lim) -> repository.buscarCompletos(de, ate, data, id, lim),
+                    repository::buscarCompletosSemData);
+            PaginaDTO<RegistroConsultas> pagina = montarPagina(registros, tamanho,
+                    r -> Cursor.codificar(r.getDataRegistro(), r.getId()));
+            return new PaginaDTO<>(pagina.itens().stream().map(RegistroConsultaResponseDTO::new).toList(),
+                    pagina.proximoCursor());
+        }
+
+        List<RegistroConsultaResumoDTO> resumos = buscarPorData(posicao, ate, tamanho, semPeriodo,
+                (data, id, lim) -> repository.buscarResumos(de, ate, data, id, lim),
+                repository::buscarResumosSemData);
+        return montarPagina(resumos, tamanho, r -> Cursor.codificar(r.dataRegistro(), r.id()));
+    }
+
+    @FunctionalInterface
+    private interface ConsultaPorData<T> {
+        List<T> buscar(LocalDate data, Long id, Limit limite);
+    }
+
+    // Traz até tamanho + 1 itens a partir da posição, em ordem decrescente de (dataRegistro, id).
+    // Sem período informado, os registros sem data também entram: depois dos datados, por id,
+    // para a listagem paginada devolver tudo o que a listagem completa devolve.
+    private <T> List<T> buscarPorData(Cursor.Posicao posicao, LocalDate ate, int tamanho, boolean comSemData,
+                                      ConsultaPorData<T> datados, BiFunction<Long, Limit, List<T>> semData) {
+        List<T> itens = new ArrayList<>();
+        if (posicao == null || posicao.data() != null) {
+            // Sem cursor, começa logo depois do fim do período
+            LocalDate data = posicao != null ? posicao.data() : ate.plusDays(1);
+            long id = posicao != null ? posicao.id() : Long.MAX_VALUE;
+            itens.addAll(datados.buscar(data, id, Limit.of(tamanho + 1)));
+        }
+        if (comSemData && itens.size() <= tamanho) {
+            long id = posicao != null && posicao.data() == null ? posicao.id() : Long.MAX_VALUE;
+            itens.addAll(semData.apply(id, Limit.of(tamanho + 1 - itens.size())));
+        }
+        return itens;
+    }
+
+    // Linha do tempo de um paciente: uma única consulta por página, já projetada no DTO
+    @LeituraReplica
+    public PaginaDTO<?> linhaDoTempo(Long pacienteId, String cursor, Integer limite,
+                                     LocalDate inicio, LocalDate fim, boolean completo) {
+        int tamanho = tamanhoPagina(limite);
+        auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.REGISTRO, null, pacienteId,
+                completo ? "linha do tempo completa" : "linha do tempo");
+
+        LocalDate de = inicio != null ? inicio : DATA_MINIMA;
+        LocalDate ate = fim != null ? fim : DATA_MAXIMA;
+        Cursor.Posicao posicao = Cursor.decodificarPosicao(cursor);
+        boolean semPeriodo = inicio == null && fim == null;
+
+        PaginaDTO<?> pagina = completo
+                ? montarPagina(buscarPorData(posicao, ate, tamanho, semPeriodo,
+                        (data, id, lim) -> repository.buscarCompletosDoPaciente(pacienteId, de, ate, data, id, lim),
+                        (id, lim) -> repository.buscarCompletosDoPacienteSemData(pacienteId, id, lim)),
+                        tamanho, r -> Cursor.codificar(r.dataRegistro(), r.id()))
+                : montarPagina(buscarPorData(posicao, ate, tamanho, semPeriodo,
+                        (data, id, lim) -> repository.buscarResumosDoPaciente(pacienteId, de, ate, data, id, lim),
+                        (id, lim) -> repository.buscarResumosDoPacienteSemData(pacienteId, id, lim)),
+                        tamanho, r -> Cursor.codificar(r.dataRegistro(), r.id()));
+
+        // Só confere se o paciente existe quando a primeira página vem vazia
+        if (cursor == null && pagina.itens().isEmpty() && !pacientesRepository.existsById(pacienteId)) {
+            throw new RuntimeException("Paciente não encontrado");
+        }
+        return pagina;
+    }
+
+    // Recebe tamanho + 1 itens; o excedente só indica que existe próxima página
+    private <T> PaginaDTO<T> montarPagina(List<T> itens, int tamanho, Function<T, String> cursorDe) {
+        if (itens.size() <= tamanho) return new PaginaDTO<>(itens, null);
+
+        List<T> pagina = itens.subList(0, tamanho);
+        return new PaginaDTO<>(pagina, cursorDe.apply(pagina.get(tamanho - 1)));
+    }
+
+    private int tamanhoPagina(Integer limite) {
+        if (limite == null || limite <= 0) return limitePadrao;
+        return Math.min(limite, limiteMaximo);
+    }
+
+    @LeituraReplica
     public RegistroConsultaResponseDTO findById(Long id) {
-        RegistroConsultas registro = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Registro de consulta não encontrado"));
+        RegistroConsultas registro = repository.findById(id).filter(r -> !r.isRemovido()).orElse(null);
+        if (registro == null) {
+            // Meses já arquivados continuam legíveis (e só legíveis) a partir dos segmentos em disco
+            RegistroConsultaResponseDTO arquivado = arquivoRegistros.buscar(id)
+                    .orElseThrow(() -> new RuntimeException("Registro de consulta não encontrado"));
+            auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.REGISTRO, id, arquivado.pacienteId(), "arquivo");
+            return arquivado;
+        }
+        auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.REGISTRO, id, pacienteIdDe(registro));
         return new RegistroConsultaResponseDTO(registro);
     }
 
+    @LeituraReplica
+    public List<ItemLoteDTO<RegistroConsultaResponseDTO>> buscarLote(List<Long> ids) {
+        List<Long> distintos = Lote.idsDistintos(ids, maxIdsLote);
+
+        Map<Long, RegistroConsultaResponseDTO> porId = new HashMap<>();
+        for (RegistroConsultas registro : repository.findAllById(distintos)) {
+            if (registro.isRemovido()) continue;
+            porId.put(registro.getId(), new RegistroConsultaResponseDTO(registro));
+            auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.REGISTRO, registro.getId(), pacienteIdDe(registro), "lote");
+        }
+        // Os que não estão no banco podem estar arquivados, como no findById
+        for (Long id : distintos) {
+            if (porId.containsKey(id)) continue;
+            arquivoRegistros.buscar(id).ifPresent(arquivado -> {
+                porId.put(id, arquivado);
+                auditoriaService.registrar(AcaoAuditoria.LEITURA, AuditoriaService.REGISTRO, id, arquivado.pacienteId(), "lote arquivo");
+            });
+        }
+        return Lote.naOrdem(ids, porId);
+    }
+
     public RegistroConsultaResponseDTO create(RegistroConsultaRequestDTO dto) {
         RegistroConsultas novo = new RegistroConsultas(dto);
-        repository.save(novo);
+        novo.setPaciente(pacienteDe(dto.pacienteId()));
+        syncService.gravar(versao -> {
+            novo.setVersaoSync(versao);
+            repository.save(novo);
+        });
+        versaoTabelas.alterada(VersaoTabelas.Tabela.REGISTROS);
+        dashboardService.consultaCriada(novo.getDataRegistro());
+        eventosService.publicar(EventosService.REGISTRO, EventosService.CRIADO, novo.getId(), novo.getVersaoSync());
+        buscaService.indexarRegistro(novo);
+        auditoriaService.registrar(AcaoAuditoria.CRIACAO, AuditoriaService.REGISTRO, novo.getId(), pacienteIdDe(novo));
         return new RegistroConsultaResponseDTO(novo);
     }
 
-    public RegistroConsultaResponseDTO update(Long id, RegistroConsultaRequestDTO dto) {
-        RegistroConsultas registro = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Registro de consulta não encontrado"));
+    public RegistroConsultaResponseDTO update(Long id, RegistroConsultaRequestDTO dto, long versaoLida) {
+        RegistroConsultas registro = buscar(id, "Registro de consulta não encontrado");
+        conferirVersao(registro, versaoLida);
+
+        LocalDate dataAnterior = registro.getDataRegistro();
 
         registro.atualizar(dto);
-        repository.save(registro);
+        registro.setPaciente(pacienteDe(dto.pacienteId()));
+        return gravarEdicao(registro, dataAnterior);
+    }
+
+    // PATCH: pacienteId ausente mantém o vínculo atual
+    public RegistroConsultaResponseDTO alterar(Long id, RegistroConsultaPatchDTO dto, long versaoLida) {
+        RegistroConsultas registro = buscar(id, "Registro de consulta não encontrado");
+        conferirVersao(registro, versaoLida);
+
+        LocalDate dataAnterior = registro.getDataRegistro();
+
+        registro.aplicar(dto);
+        if (dto.pacienteId() != null) registro.setPaciente(pacienteDe(dto.pacienteId()));
+        return gravarEdicao(registro, dataAnterior);
+    }
+
+    private void conferirVersao(RegistroConsultas registro, long versaoLida) {
+        if (registro.getVersao() == null || registro.getVersao() != versaoLida) {
+            throw new ConflitoEdicaoException(CONFLITO);
+        }
+    }
+
+    private RegistroConsultaResponseDTO gravarEdicao(RegistroConsultas registro, LocalDate dataAnterior) {
+        try {
+            syncService.gravar(versao -> {
+                registro.setVersaoSync(versao);
+                // save faz merge e devolve outra instância, que tem a versão nova
+                registro.setVersao(repository.save(registro).getVersao());
+            });
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitoEdicaoException(CONFLITO);
+        }
+        versaoTabelas.alterada(VersaoTabelas.Tabela.REGISTROS);
+        dashboardService.consultaAlterada(dataAnterior, registro.getDataRegistro());
+        eventosService.publicar(EventosService.REGISTRO, EventosService.ALTERADO, registro.getId(), registro.getVersaoSync());
+        buscaService.indexarRegistro(registro);
+        auditoriaService.registrar(AcaoAuditoria.ALTERACAO, AuditoriaService.REGISTRO, registro.getId(), pacienteIdDe(registro));
 
         return new RegistroConsultaResponseDTO(registro);
     }
 
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Registro não encontrado para deletar");
-        }
-        repository.deleteById(id);
+        RegistroConsultas registro = buscar(id, "Registro não encontrado para deletar");
+
+        // Remoção lógica: a linha fica como marcação para os clientes do /sync
+        syncService.gravar(versao -> {
+            registro.setRemovido(true);
+            registro.setVersaoSync(versao);
+            repository.save(registro);
+        });
+        versaoTabelas.alterada(VersaoTabelas.Tabela.REGISTROS);
+        dashboardService.consultaRemovida(registro.getDataRegistro());
+        eventosService.publicar(EventosService.REGISTRO, EventosService.REMOVIDO, id, registro.getVersaoSync());
+        buscaService.removerRegistro(id);
+        auditoriaService.registrar(AcaoAuditoria.REMOCAO, AuditoriaService.REGISTRO, id, pacienteIdDe(registro));
+    }
+
+    private static Long pacienteIdDe(RegistroConsultas registro) {
+        return registro.getPaciente() != null ? registro.getPaciente().getId() : null;
+    }
+
+    // O cache de segundo nível pode devolver a entidade já marcada como removida
+    private RegistroConsultas buscar(Long id, String mensagem) {
+        return repository.findById(id)
+                .filter(r -> !r.isRemovido())
+                .orElseThrow(() -> new RuntimeException(mensagem));
+    }
+
+    private Pacientes pacienteDe(Long pacienteId) {
+        if (pacienteId == null) return null;
+        return pacientesRepository.findById(pacienteId)
+                .filter(p -> !p.isRemovido())
+                .orElseThrow(() -> new RuntimeException("Paciente não encontrado"));
     }
-}
\ No newline at end of file
+}
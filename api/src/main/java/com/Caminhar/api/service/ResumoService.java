@@ -0,0 +1,254 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.PontoSerieDTO;
+import com.Caminhar.api.DTO.SerieDashboardDTO;
+import com.Caminhar.api.infra.replicas.LeituraReplica;
+import com.Caminhar.api.model.ResumoDiagnostico;
+import com.Caminhar.api.model.ResumoDiario;
+import com.Caminhar.api.repository.PacientesRepository;
+import com.Caminhar.api.repository.RegistroConsultasRepository;
+import com.Caminhar.api.repository.ResumoDiagnosticoRepository;
+import com.Caminhar.api.repository.ResumoDiarioRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Resumo diário pré-agregado (resumo_diario e resumo_diagnostico) para as séries do dashboard.
+// Cada escrita marca o dia afetado; de tempos em tempos os dias marcados são recalculados a partir
+// das tabelas de origem, um GROUP BY restrito a esses dias. Dias de meses arquivados somam também os
+// registros dos segmentos, que já não estão no banco. As séries só leem o resumo.
+@Service
+public class ResumoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoService.class);
+
+    public enum Granularidade { DIA, SEMANA, MES }
+
+    // Diagnóstico é texto livre; no resumo vai cortado
+    private static final int TAMANHO_DIAGNOSTICO = 255;
+
+    @Autowired
+    private ResumoDiarioRepository resumoDiarioRepository;
+
+    @Autowired
+    private ResumoDiagnosticoRepository resumoDiagnosticoRepository;
+
+    @Autowired
+    private RegistroConsultasRepository registroConsultasRepository;
+
+    @Autowired
+    private PacientesRepository pacientesRepository;
+
+    @Autowired
+    private ArquivoRegistrosService arquivoRegistros;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${api.resumo.lote-dias:366}")
+    private int loteDias;
+
+    @Value("${api.resumo.dias-reconciliacao:60}")
+    private int diasReconciliacao;
+
+    @Value("${api.dashboard.series.max-dias:3660}")
+    private int maxDias;
+
+    @Value("${api.dashboard.series.diagnosticos:10}")
+    private int diagnosticosPadrao;
+
+    private final Set<LocalDate> diasPendentes = ConcurrentHashMap.newKeySet();
+
+    // Lock em vez de synchronized: com threads virtuais o recálculo não prende a thread portadora
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Chamado depois que a escrita confirmou
+    public void marcar(LocalDate dia) {
+        if (dia != null) diasPendentes.add(dia);
+    }
+
+    // As linhas saem do banco no commit e o segmento aparece pouco antes: um recálculo no meio pode ter
+    // contado as duas coisas, então o mês inteiro é recalculado de novo
+    @EventListener
+    public void mesArquivado(ArquivoRegistrosService.MesArquivado evento) {
+        for (LocalDate dia = evento.mes().atDay(1); !dia.isAfter(evento.mes().atEndOfMonth()); dia = dia.plusDays(1)) {
+            diasPendentes.add(dia);
+        }
+    }
+
+    // Banco que ainda não tem resumo (primeira subida com esta tabela): recalcula todos os dias
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSeVazio() {
+        if (resumoDiarioRepository.count() == 0) reconstruir();
+    }
+
+    public void reconstruir() {
+        diasPendentes.addAll(registroConsultasRepository.diasComConsultas());
+        diasPendentes.addAll(pacientesRepository.diasComCadastros());
+        atualizar();
+    }
+
+    // Rede de segurança para marcações perdidas (reinício com dias pendentes, escrita fora da API)
+    @Scheduled(cron = "${api.resumo.reconciliacao-cron:0 30 3 * * *}")
+    public void reconciliar() {
+        LocalDate hoje = LocalDate.now();
+        for (int i = 0; i <= diasReconciliacao; i++) diasPendentes.add(hoje.minusDays(i));
+    }
+
+    @Scheduled(fixedDelayString = "${api.resumo.intervalo-ms:60000}", initialDelayString = "${api.resumo.intervalo-ms:60000}")
+    public void atualizar() {
+        lock.lock();
+        try {
+            int total = 0;
+            while (!diasPendentes.isEmpty()) {
+                // O dia sai da fila antes de ser lido: uma escrita que chegue depois o marca de novo
+                List<LocalDate> lote = new ArrayList<>(loteDias);
+                Iterator<LocalDate> it = diasPendentes.iterator();
+                while (it.hasNext() && lote.size() < loteDias) {
+                    lote.add(it.next());
+                    it.remove();
+                }
+
+                try {
+                    recalcular(lote);
+                    total += lote.size();
+                } catch (RuntimeException e) {
+                    logger.error("Falha ao atualizar o resumo diário; os dias voltam para a fila", e);
+                    diasPendentes.addAll(lote);
+                    return;
+                }
+            }
+            if (total > 0) logger.debug("Resumo diário atualizado: {} dias", total);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recalcular(List<LocalDate> dias) {
+        Map<LocalDate, long[]> totais = new HashMap<>();
+        for (Object[] linha : registroConsultasRepository.contarPorDia(dias)) {
+            totais.computeIfAbsent((LocalDate) linha[0], d -> new long[2])[0] = (Long) linha[1];
+        }
+        for (Object[] linha : pacientesRepository.contarCadastrosPorDia(dias)) {
+            totais.computeIfAbsent((LocalDate) linha[0], d -> new long[2])[1] = (Long) linha[1];
+        }
+
+        Map<LocalDate, Map<String, Long>> diagnosticos = new HashMap<>();
+        for (Object[] linha : registroConsultasRepository.contarDiagnosticosPorDia(dias)) {
+            somarDiagnostico(diagnosticos, (LocalDate) linha[0], (String) linha[1], (Long) linha[2]);
+        }
+
+        // Mesmas contagens para o que já foi arquivado; o mês é lido uma vez, mesmo com vários dias pedidos
+        Set<YearMonth> arquivados = arquivoRegistros.meses();
+        Set<LocalDate> pedidos = new HashSet<>(dias);
+        for (YearMonth mes : dias.stream().map(YearMonth::from).filter(arquivados::contains).distinct().toList()) {
+            arquivoRegistros.percorrer(mes, registro -> {
+                LocalDate dia = registro.dataRegistro();
+                if (!pedidos.contains(dia)) return;
+                totais.computeIfAbsent(dia, d -> new long[2])[0]++;
+                String diagnostico = registro.diagnostico() != null ? registro.diagnostico().trim() : "";
+                if (!diagnostico.isEmpty()) somarDiagnostico(diagnosticos, dia, diagnostico.toLowerCase(Locale.ROOT), 1);
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            resumoDiarioRepository.apagarDias(dias);
+            resumoDiagnosticoRepository.apagarDias(dias);
+
+            totais.forEach((dia, t) -> entityManager.persist(new ResumoDiario(dia, t[0], t[1])));
+            diagnosticos.forEach((dia, porDiagnostico) -> porDiagnostico.forEach((diagnostico, total) ->
+                    entityManager.persist(new ResumoDiagnostico(dia, diagnostico, total))));
+        });
+    }
+
+    // Textos diferentes podem virar o mesmo diagnóstico depois de cortados
+    private static void somarDiagnostico(Map<LocalDate, Map<String, Long>> diagnosticos, LocalDate dia, String diagnostico, long total) {
+        if (diagnostico.length() > TAMANHO_DIAGNOSTICO) diagnostico = diagnostico.substring(0, TAMANHO_DIAGNOSTICO);
+        diagnosticos.computeIfAbsent(dia, d -> new HashMap<>()).merge(diagnostico, total, Long::sum);
+    }
+
+    // Lê no máximo uma linha por dia do período e soma nos baldes; dias sem movimento viram zero
+    @LeituraReplica
+    public SerieDashboardDTO serie(LocalDate inicio, LocalDate fim, String granularidade, Integer diagnosticos) {
+        Granularidade g = granularidade(granularidade);
+        LocalDate ate = fim != null ? fim : LocalDate.now();
+        LocalDate de = inicio != null ? inicio : ate.minusDays(29);
+
+        if (de.isAfter(ate)) {
+            throw new RuntimeException("O início do período deve ser anterior ao fim");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= maxDias) {
+            throw new RuntimeException("Período maior que " + maxDias + " dias");
+        }
+
+        Map<LocalDate, long[]> baldes = new TreeMap<>();
+        for (LocalDate balde = inicioDoBalde(de, g); !balde.isAfter(ate); balde = proximoBalde(balde, g)) {
+            baldes.put(balde, new long[2]);
+        }
+        for (ResumoDiario resumo : resumoDiarioRepository.findByDiaBetweenOrderByDia(de, ate)) {
+            long[] balde = baldes.get(inicioDoBalde(resumo.getDia(), g));
+            balde[0] += resumo.getConsultas();
+            balde[1] += resumo.getNovosPacientes();
+        }
+
+        List<PontoSerieDTO> pontos = new ArrayList<>(baldes.size());
+        baldes.forEach((balde, t) -> pontos.add(new PontoSerieDTO(balde, t[0], t[1])));
+
+        int limite = diagnosticos != null && diagnosticos > 0 ? Math.min(diagnosticos, 100) : diagnosticosPadrao;
+        return new SerieDashboardDTO(de, ate, g.name().toLowerCase(Locale.ROOT), pontos,
+                resumoDiagnosticoRepository.principais(de, ate, Limit.of(limite)));
+    }
+
+    private Granularidade granularidade(String valor) {
+        if (valor == null || valor.isBlank()) return Granularidade.DIA;
+        try {
+            return Granularidade.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Granularidade inválida: use dia, semana ou mes");
+        }
+    }
+
+    private static LocalDate inicioDoBalde(LocalDate dia, Granularidade g) {
+        return switch (g) {
+            case DIA -> dia;
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> dia.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate proximoBalde(LocalDate balde, Granularidade g) {
+        return switch (g) {
+            case DIA -> balde.plusDays(1);
+            case SEMANA -> balde.plusWeeks(1);
+            case MES -> balde.plusMonths(1);
+        };
+    }
+}
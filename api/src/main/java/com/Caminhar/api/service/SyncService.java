@@ -0,0 +1,149 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.PacientesResponseDTO;
+import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.DTO.SyncRemovidoDTO;
+import com.Caminhar.api.infra.replicas.MonitorReplicas;
+import com.Caminhar.api.model.AcaoAuditoria;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.model.RegistroConsultas;
+import com.Caminhar.api.repository.PacientesRepository;
+import com.Caminhar.api.repository.RegistroConsultaRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+// Sync incremental para clientes offline. Toda escrita em pacientes e registros grava uma versão
+// crescente (versaoSync, compartilhada pelas duas tabelas) e remoções viram marcação. O cliente
+// guarda a "versao" devolvida e na próxima vez pede só o que mudou depois dela.
+@Service
+public class SyncService {
+
+    @Autowired
+    private PacientesRepository pacientesRepository;
+
+    @Autowired
+    private RegistroConsultaRepository registroRepository;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Só existe com leituras em réplica configuradas
+    @Autowired(required = false)
+    private MonitorReplicas monitorReplicas;
+
+    private long ultima;
+
+    // Versões já entregues a escritas que ainda não confirmaram
+    private final ConcurrentSkipListSet<Long> emAndamento = new ConcurrentSkipListSet<>();
+
+    @PostConstruct
+    void init() {
+        ultima = Math.max(pacientesRepository.maiorVersaoSync(), registroRepository.maiorVersaoSync());
+        // O monitor mede o atraso das réplicas por esta marca, não pela maior versão gravada
+        if (monitorReplicas != null) monitorReplicas.acompanhar(this::limite);
+    }
+
+    // Executa a escrita com uma versão nova. A escrita precisa confirmar antes de retornar
+    // (save fora de @Transactional ou TransactionTemplate), senão o /sync pode pular a versão.
+    public void gravar(LongConsumer escrita) {
+        long versao = reservar(1);
+        try {
+            escrita.accept(versao);
+            confirmada(versao);
+        } finally {
+            emAndamento.remove(versao);
+        }
+    }
+
+    // Reserva "quantidade" versões seguidas, para gravações em lote
+    public void gravarLote(int quantidade, LongConsumer escrita) {
+        long primeira = reservar(quantidade);
+        try {
+            escrita.accept(primeira);
+            confirmada(primeira + quantidade - 1);
+        } finally {
+            emAndamento.remove(primeira);
+        }
+    }
+
+    // Quem escreveu passa a ler do primário até as réplicas terem essa versão
+    private void confirmada(long versao) {
+        if (monitorReplicas != null) monitorReplicas.escritaConfirmada(versao);
+    }
+
+    private synchronized long reservar(int quantidade) {
+        long primeira = ultima + 1;
+        ultima += quantidade;
+        emAndamento.add(primeira);
+        return primeira;
+    }
+
+    // Maior versão cujas escritas (e todas as anteriores) já confirmaram. O /sync não entrega
+    // nada acima disso: uma escrita mais lenta com versão menor ainda vai aparecer depois.
+    synchronized long limite() {
+        return emAndamento.isEmpty() ? ultima : emAndamento.first() - 1;
+    }
+
+    // Sem "desde", devolve a base inteira (sem as marcações de removidos)
+    @Transactional(readOnly = true)
+    public void escrever(Long desde, OutputStream out) throws IOException {
+        long ate = limite();
+        long de = desde != null ? desde : -1;
+        boolean comRemovidos = desde != null;
+
+        String detalhe = "sync desde=" + (desde != null ? desde : "inicio");
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.PACIENTE, null, null, detalhe);
+        auditoriaService.registrar(AcaoAuditoria.LISTAGEM, AuditoriaService.REGISTRO, null, null, detalhe);
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeNumberField("versao", Math.max(ate, de));
+
+            gen.writeArrayFieldStart("pacientes");
+            try (Stream<Pacientes> pacientes = pacientesRepository.streamAlterados(de, ate, comRemovidos)) {
+                Iterator<Pacientes> it = pacientes.iterator();
+                while (it.hasNext()) {
+                    Pacientes paciente = it.next();
+                    gen.writePOJO(paciente.isRemovido()
+                            ? new SyncRemovidoDTO(paciente.getId())
+                            : new PacientesResponseDTO(paciente));
+                    entityManager.detach(paciente);
+                }
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("registros");
+            try (Stream<RegistroConsultas> registros = registroRepository.streamAlterados(de, ate, comRemovidos)) {
+                Iterator<RegistroConsultas> it = registros.iterator();
+                while (it.hasNext()) {
+                    RegistroConsultas registro = it.next();
+                    gen.writePOJO(registro.isRemovido()
+                            ? new SyncRemovidoDTO(registro.getId())
+                            : new RegistroConsultaResponseDTO(registro));
+                    entityManager.detach(registro);
+                }
+            }
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+    }
+}
@@ -1,3 +1,3 @@
 package com.Caminhar.api.service.login;
 
-public record LoginResponseDTO(String token) {}
+public record LoginResponseDTO(String token, String refreshToken) {}
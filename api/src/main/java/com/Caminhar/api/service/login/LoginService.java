@@ -0,0 +1,129 @@
+package com.Caminhar.api.service.login;
+
+import com.Caminhar.api.DTO.AutenticationDTO;
+import com.Caminhar.api.infra.security.HashSenhas;
+import com.Caminhar.api.infra.security.LimiteTentativasException;
+import com.Caminhar.api.infra.security.LimitadorTaxa;
+import com.Caminhar.api.infra.security.RevogacaoTokens;
+import com.Caminhar.api.infra.security.TokenCache;
+import com.Caminhar.api.infra.tokenService.TokenService;
+import com.Caminhar.api.model.user.User;
+import com.Caminhar.api.repository.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class LoginService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HashSenhas hashSenhas;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    // Por login: poucas tentativas erradas seguidas; um login certo zera a contagem
+    @Value("${api.security.login.por-login.capacidade:5}")
+    private int capacidadePorLogin;
+
+    @Value("${api.security.login.por-login.recarga-por-minuto:5}")
+    private double recargaPorLogin;
+
+    // Por IP: folgado, porque a equipe inteira pode sair pelo mesmo IP na troca de turno
+    @Value("${api.security.login.por-ip.capacidade:60}")
+    private int capacidadePorIp;
+
+    @Value("${api.security.login.por-ip.recarga-por-minuto:120}")
+    private double recargaPorIp;
+
+    @Value("${api.security.login.max-chaves:100000}")
+    private int maxChaves;
+
+    private LimitadorTaxa porLogin;
+    private LimitadorTaxa porIp;
+
+    // A senha é conferida aqui, fora do AuthenticationManager (o BCrypt roda no pool do HashSenhas),
+    // então as verificações de conta que o DaoAuthenticationProvider faria também ficam a cargo deste service
+    private final UserDetailsChecker verificacaoConta = new AccountStatusUserDetailsChecker();
+
+    @PostConstruct
+    void iniciar() {
+        porLogin = new LimitadorTaxa(capacidadePorLogin, recargaPorLogin, maxChaves);
+        porIp = new LimitadorTaxa(capacidadePorIp, recargaPorIp, maxChaves);
+    }
+
+    // A verificação da senha termina numa thread do pool do BCrypt; a requisição não fica presa esperando
+    public CompletableFuture<LoginResponseDTO> login(AutenticationDTO dto, String ip) {
+        long espera = porIp.tentar(ip);
+        if (espera > 0) throw new LimiteTentativasException(espera);
+
+        String chave = dto.login() == null ? "" : dto.login().toLowerCase(Locale.ROOT);
+        espera = porLogin.tentar(chave);
+        if (espera > 0) throw new LimiteTentativasException(espera);
+
+        UserDetails usuario = userRepository.findByLogin(dto.login());
+        String hash = usuario != null ? usuario.getPassword() : null;
+
+        return hashSenhas.verificar(dto.password() == null ? "" : dto.password(), hash)
+                .thenApply(valida -> {
+                    if (!valida) throw new BadCredentialsException("Usuário ou senha inválidos");
+                    // Só depois da senha: quem não a sabe não descobre se a conta está bloqueada
+                    verificacaoConta.check(usuario);
+                    porLogin.liberar(chave);
+                    return emitir((User) usuario);
+                });
+    }
+
+    // Troca um refresh token válido por um par novo; o usado é revogado (rotação), então
+    // reapresentar o mesmo refresh token falha
+    public LoginResponseDTO renovar(String refreshToken) {
+        DecodedJWT jwt = refreshToken == null ? null : tokenService.verificarRefresh(refreshToken);
+        if (jwt == null || revogacaoTokens.revogado(jwt.getId(), jwt.getExpiresAtAsInstant())) {
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+
+        UserDetails usuario = userRepository.findByLogin(jwt.getSubject());
+        if (usuario == null) throw new BadCredentialsException("Refresh token inválido");
+        // Conta desativada ou bloqueada depois do login não renova a sessão
+        verificacaoConta.check(usuario);
+        if (!revogacaoTokens.revogar(jwt.getId(), jwt.getExpiresAtAsInstant())) {
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+        return emitir((User) usuario);
+    }
+
+    // Revoga o token de acesso e o refresh token da sessão; tokens inválidos são ignorados
+    public void sair(String tokenAcesso, String refreshToken) {
+        if (tokenAcesso != null) {
+            DecodedJWT acesso = tokenService.verificar(tokenAcesso);
+            if (acesso != null) revogacaoTokens.revogar(acesso.getId(), acesso.getExpiresAtAsInstant());
+            tokenCache.remover(tokenAcesso);
+        }
+        if (refreshToken != null) {
+            DecodedJWT refresh = tokenService.verificarRefresh(refreshToken);
+            if (refresh != null) revogacaoTokens.revogar(refresh.getId(), refresh.getExpiresAtAsInstant());
+        }
+    }
+
+    private LoginResponseDTO emitir(User usuario) {
+        return new LoginResponseDTO(tokenService.generateToken(usuario), tokenService.gerarRefreshToken(usuario));
+    }
+}
@@ -0,0 +1,30 @@
+package com.Caminhar.api.utils;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseLightStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+// Analisador da busca: minúsculas, sem acento (José == jose) e com radical do português
+// (diagnósticos == diagnostico). O mesmo analisador é usado para indexar e para consultar.
+public class AnalisadorPortugues extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String campo) {
+        StandardTokenizer tokenizer = new StandardTokenizer();
+        TokenStream stream = new LowerCaseFilter(tokenizer);
+        stream = new StopFilter(stream, PortugueseAnalyzer.getDefaultStopSet());
+        stream = new ASCIIFoldingFilter(stream);
+        stream = new PortugueseLightStemFilter(stream);
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+
+    @Override
+    protected TokenStream normalize(String campo, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
@@ -0,0 +1,75 @@
+package com.Caminhar.api.utils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Fila circular limitada e sem locks: várias threads produzem, uma única thread consome.
+// Cada posição guarda um número de sequência que diz se ela está livre para a volta atual
+// do produtor ou já publicada para o consumidor (esquema de Dmitry Vyukov).
+// Com a fila cheia, oferecer devolve false na hora: o produtor nunca bloqueia.
+public class AnelEventos<T> {
+
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicReferenceArray<T> itens;
+    private final AtomicLongArray sequencias;
+
+    private final AtomicLong cauda = new AtomicLong();
+
+    // Só a thread consumidora mexe na cabeça
+    private long cabeca;
+
+    public AnelEventos(int capacidadeMinima) {
+        this.capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1;
+        this.mascara = capacidade - 1;
+        this.itens = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    public boolean oferecer(T item) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.getAcquire(indice) - posicao;
+
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    itens.setPlain(indice, item);
+                    // Publica o item para o consumidor
+                    sequencias.setRelease(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                // O consumidor ainda não liberou esta posição: fila cheia
+                return false;
+            }
+            // diferenca > 0: outro produtor pegou a posição; tenta a seguinte
+        }
+    }
+
+    // Move até max itens para destino; só pode ser chamado pela thread consumidora
+    public int drenar(List<T> destino, int max) {
+        int movidos = 0;
+        while (movidos < max) {
+            int indice = (int) cabeca & mascara;
+            if (sequencias.getAcquire(indice) != cabeca + 1) break;
+
+            destino.add(itens.getPlain(indice));
+            itens.setPlain(indice, null);
+            // Libera a posição para a próxima volta dos produtores
+            sequencias.setRelease(indice, cabeca + capacidade);
+            cabeca++;
+            movidos++;
+        }
+        return movidos;
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+}
@@ -0,0 +1,89 @@
+package com.Caminhar.api.utils;
+
+import java.util.Arrays;
+
+// Conjunto de long sem boxing: endereçamento aberto com sondagem linear num único long[].
+// Só aceita valores >= 0 (-1 marca posição vazia). Não é thread-safe: quem compartilha sincroniza.
+public class ConjuntoLong {
+
+    private static final long VAZIO = -1L;
+
+    private long[] tabela;
+    private int mascara;
+    private int tamanho;
+
+    public ConjuntoLong(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(8, capacidadeInicial * 2 - 1)) << 1;
+        alocar(capacidade);
+    }
+
+    public boolean contem(long valor) {
+        for (int i = posicao(valor); ; i = (i + 1) & mascara) {
+            long atual = tabela[i];
+            if (atual == valor) return true;
+            if (atual == VAZIO) return false;
+        }
+    }
+
+    // false se o valor já estava no conjunto
+    public boolean adicionar(long valor) {
+        if (valor < 0) throw new IllegalArgumentException("Valor negativo: " + valor);
+
+        int i = posicao(valor);
+        for (long atual; (atual = tabela[i]) != VAZIO; i = (i + 1) & mascara) {
+            if (atual == valor) return false;
+        }
+        tabela[i] = valor;
+
+        // Ocupação máxima de 50%: as sondagens continuam curtas
+        if (++tamanho * 2 > tabela.length) crescer();
+        return true;
+    }
+
+    public boolean remover(long valor) {
+        int i = posicao(valor);
+        for (long atual; (atual = tabela[i]) != valor; i = (i + 1) & mascara) {
+            if (atual == VAZIO) return false;
+        }
+
+        // Sem lápides: puxa para trás os valores seguintes que ficariam inalcançáveis
+        int livre = i;
+        for (int j = (i + 1) & mascara; tabela[j] != VAZIO; j = (j + 1) & mascara) {
+            int ideal = posicao(tabela[j]);
+            if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                tabela[livre] = tabela[j];
+                livre = j;
+            }
+        }
+        tabela[livre] = VAZIO;
+        tamanho--;
+        return true;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private int posicao(long valor) {
+        // Multiplicação de Fibonacci: espalha bem valores sequenciais como os CPFs
+        long h = valor * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void crescer() {
+        long[] antiga = tabela;
+        alocar(antiga.length * 2);
+        for (long valor : antiga) {
+            if (valor == VAZIO) continue;
+            int i = posicao(valor);
+            while (tabela[i] != VAZIO) i = (i + 1) & mascara;
+            tabela[i] = valor;
+        }
+    }
+
+    private void alocar(int capacidade) {
+        tabela = new long[capacidade];
+        Arrays.fill(tabela, VAZIO);
+        mascara = capacidade - 1;
+    }
+}
@@ -1,45 +1,154 @@
 package com.Caminhar.api.utils;
 
+// Validação de CPF numa única passada, sem regex e sem alocar nada (nem Strings, nem objetos auxiliares):
+// os dígitos viram um long e os verificadores são conferidos em cpfValido(long).
+// Caracteres que não são dígitos (pontos, traço, espaços) são ignorados, como antes.
 public class CpfVerif {
 
+    public static final long INVALIDO = -1L;
+
     public static boolean cpfValido(String cpf) {
-        if (cpf == null) return false;
+        return normalizar(cpf) != INVALIDO;
+    }
 
+    public static boolean cpfValido(CharSequence cpf) {
+        return normalizar(cpf) != INVALIDO;
+    }
 
-        cpf = cpf.replaceAll("\\D", "");
+    public static boolean cpfValido(byte[] ascii, int inicio, int fim) {
+        return normalizar(ascii, inicio, fim) != INVALIDO;
+    }
 
+    public static boolean cpfValido(long cpf) {
+        if (cpf < 0 || cpf > 99_999_999_999L) return false;
+
+        // Lê os dígitos da direita para a esquerda (posição 10 até 0)
+        int dv2Lido = (int) (cpf % 10);
+        cpf /= 10;
+        int dv1Lido = (int) (cpf % 10);
+        cpf /= 10;
+
+        int soma1 = 0;
+        int soma2 = dv1Lido * 2;
+        boolean todosIguais = dv1Lido == dv2Lido;
+
+        for (int k = 8; k >= 0; k--) {
+            int d = (int) (cpf % 10);
+            cpf /= 10;
+            soma1 += d * (10 - k);
+            soma2 += d * (11 - k);
+            todosIguais &= d == dv2Lido;
+        }
 
-        if (cpf.length() != 11)
-            return false;
+        if (todosIguais) return false;
 
+        int dv1 = 11 - (soma1 % 11);
+        dv1 = dv1 >= 10 ? 0 : dv1;
 
-        if (cpf.matches("(\\d)\\1{10}"))
-            return false;
+        int dv2 = 11 - (soma2 % 11);
+        dv2 = dv2 >= 10 ? 0 : dv2;
 
-        try {
+        return dv1 == dv1Lido && dv2 == dv2Lido;
+    }
 
-            int soma1 = 0;
-            for (int i = 0; i < 9; i++) {
-                soma1 += (cpf.charAt(i) - '0') * (10 - i);
+    // Devolve o CPF como número de 11 dígitos (ex.: 52998224725L) ou INVALIDO
+    public static long normalizar(CharSequence cpf) {
+        if (cpf == null) return INVALIDO;
+
+        long numero = 0;
+        int quantidade = 0;
+        for (int i = 0, n = cpf.length(); i < n; i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (quantidade == 11) return INVALIDO;
+                numero = numero * 10 + (c - '0');
+                quantidade++;
             }
-            int dv1 = 11 - (soma1 % 11);
-            dv1 = (dv1 >= 10) ? 0 : dv1;
+        }
+        return quantidade == 11 && cpfValido(numero) ? numero : INVALIDO;
+    }
 
+    public static long normalizar(byte[] ascii, int inicio, int fim) {
+        if (ascii == null) return INVALIDO;
+
+        long numero = 0;
+        int quantidade = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte b = ascii[i];
+            if (b >= '0' && b <= '9') {
+                if (quantidade == 11) return INVALIDO;
+                numero = numero * 10 + (b - '0');
+                quantidade++;
+            }
+        }
+        return quantidade == 11 && cpfValido(numero) ? numero : INVALIDO;
+    }
 
-            int soma2 = 0;
-            for (int i = 0; i < 10; i++) {
-                soma2 += (cpf.charAt(i) - '0') * (11 - i);
+    public static String formatar(long cpf) {
+        String digitos = Long.toString(cpf);
+        return "0".repeat(11 - digitos.length()) + digitos;
+    }
+
+    // Valida vários CPFs de uma vez. Os dígitos são arrumados "por coluna"
+    // (todos os 1º dígitos, depois todos os 2º, ...) para que os laços internos
+    // sejam contíguos e o JIT consiga vetorizá-los.
+    public static void validarLote(CharSequence[] cpfs, boolean[] resultado) {
+        int n = cpfs.length;
+        byte[] digitos = new byte[11 * n];
+        boolean[] formatoOk = new boolean[n];
+
+        for (int i = 0; i < n; i++) {
+            CharSequence cpf = cpfs[i];
+            if (cpf == null) continue;
+
+            int k = 0;
+            for (int j = 0, tam = cpf.length(); j < tam && k <= 11; j++) {
+                char c = cpf.charAt(j);
+                if (c >= '0' && c <= '9') {
+                    if (k < 11) digitos[k * n + i] = (byte) (c - '0');
+                    k++;
+                }
             }
-            int dv2 = 11 - (soma2 % 11);
-            dv2 = (dv2 >= 10) ? 0 : dv2;
+            formatoOk[i] = k == 11;
+        }
 
+        validarDigitos(digitos, n, resultado);
 
-            return dv1 == (cpf.charAt(9) - '0') &&
-                    dv2 == (cpf.charAt(10) - '0');
+        for (int i = 0; i < n; i++) {
+            resultado[i] &= formatoOk[i];
+        }
+    }
 
-        } catch (Exception e) {
-            return false;
+    // digitos[k * n + i] = k-ésimo dígito do i-ésimo CPF (0 a 9)
+    public static void validarDigitos(byte[] digitos, int n, boolean[] resultado) {
+        int[] soma1 = new int[n];
+        int[] soma2 = new int[n];
+        int[] iguais = new int[n];
+
+        for (int k = 0; k < 9; k++) {
+            int base = k * n;
+            int peso1 = 10 - k;
+            int peso2 = 11 - k;
+            for (int i = 0; i < n; i++) {
+                int d = digitos[base + i];
+                soma1[i] += d * peso1;
+                soma2[i] += d * peso2;
+                iguais[i] += d == digitos[i] ? 1 : 0;
+            }
+        }
+
+        int base9 = 9 * n;
+        int base10 = 10 * n;
+        for (int i = 0; i < n; i++) {
+            int dv1 = 11 - (soma1[i] % 11);
+            dv1 = dv1 >= 10 ? 0 : dv1;
+
+            int dv2 = 11 - ((soma2[i] + dv1 * 2) % 11);
+            dv2 = dv2 >= 10 ? 0 : dv2;
+
+            boolean todosIguais = iguais[i] == 9 && digitos[base9 + i] == digitos[i] && digitos[base10 + i] == digitos[i];
+
+            resultado[i] = !todosIguais && dv1 == digitos[base9 + i] && dv2 == digitos[base10 + i];
         }
     }
 }
-
@@ -0,0 +1,74 @@
+package com.Caminhar.api.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvLinha {
+
+    // Divide uma linha CSV respeitando campos entre aspas ("a;b" e "" como aspas escapadas)
+    public static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+
+            if (entreAspas) {
+                if (c == '"') {
+                    if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        atual.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+
+        campos.add(atual.toString().trim());
+        return campos;
+    }
+
+    // Verdadeiro se o texto termina dentro de um campo entre aspas, ou seja, o registro continua na
+    // próxima linha (quebra de linha dentro de observações ou endereço). "" conta duas vezes e não muda a paridade.
+    public static boolean aspasAbertas(CharSequence texto) {
+        boolean abertas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') abertas = !abertas;
+        }
+        return abertas;
+    }
+
+    // Monta uma linha CSV (sem a quebra de linha); só põe aspas nos campos que precisam. Nulo vira campo vazio.
+    public static void juntar(StringBuilder linha, char separador, Object... campos) {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) linha.append(separador);
+            if (campos[i] == null) continue;
+
+            String valor = campos[i].toString();
+            if (precisaAspas(valor, separador)) {
+                linha.append('"').append(valor.replace("\"", "\"\"")).append('"');
+            } else {
+                linha.append(valor);
+            }
+        }
+    }
+
+    private static boolean precisaAspas(String valor, char separador) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == separador || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.Caminhar.api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor opaco da paginação por chave (keyset): o cliente só devolve o valor recebido
+public class Cursor {
+
+    // data == null: posição na seção dos registros sem data, que vem depois dos datados
+    public record Posicao(LocalDate data, long id) {
+    }
+
+    private static final String SEM_DATA = "-";
+
+    public static String codificar(long id) {
+        return base64(Long.toString(id));
+    }
+
+    public static String codificar(LocalDate data, long id) {
+        return base64((data != null ? data.toString() : SEM_DATA) + ":" + id);
+    }
+
+    public static long decodificarId(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+
+        try {
+            return Long.parseLong(texto(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    public static Posicao decodificarPosicao(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        try {
+            String[] partes = texto(cursor).split(":");
+            LocalDate data = SEM_DATA.equals(partes[0]) ? null : LocalDate.parse(partes[0]);
+            return new Posicao(data, Long.parseLong(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String texto(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
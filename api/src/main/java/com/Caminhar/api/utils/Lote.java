@@ -0,0 +1,35 @@
+package com.Caminhar.api.utils;
+
+import com.Caminhar.api.DTO.ItemLoteDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Apoio às buscas em lote (/pacientes/batch, /registro-consultas/batch)
+public class Lote {
+
+    // Ids distintos para o IN, recusando listas vazias ou maiores que o máximo
+    public static List<Long> idsDistintos(List<Long> ids, int maximo) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("Informe ao menos um id");
+        }
+        if (ids.size() > maximo) {
+            throw new RuntimeException("Máximo de " + maximo + " ids por requisição");
+        }
+        LinkedHashSet<Long> distintos = new LinkedHashSet<>(ids);
+        distintos.remove(null);
+        return new ArrayList<>(distintos);
+    }
+
+    // Resposta na ordem (e com as repetições) do pedido
+    public static <T> List<ItemLoteDTO<T>> naOrdem(List<Long> ids, Map<Long, T> porId) {
+        List<ItemLoteDTO<T>> itens = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T dados = porId.get(id);
+            itens.add(new ItemLoteDTO<>(id, dados != null, dados));
+        }
+        return itens;
+    }
+}
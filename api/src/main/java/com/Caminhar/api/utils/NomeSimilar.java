@@ -0,0 +1,95 @@
+package com.Caminhar.api.utils;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Comparação aproximada de nomes de pessoas para achar cadastros repetidos
+// ("José da Silva" x "Jose Silva", "Marcia" x "Márcia", erros de digitação).
+public class NomeSimilar {
+
+    private static final Set<String> PARTICULAS = Set.of("da", "de", "do", "das", "dos", "e");
+
+    // Minúsculas, sem acentos, sem pontuação, sem partículas e com um espaço entre as palavras
+    public static String normalizar(String nome) {
+        if (nome == null) return "";
+
+        String semAcento = Normalizer.normalize(nome, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+
+        StringBuilder resultado = new StringBuilder(semAcento.length());
+        for (String palavra : semAcento.split("[^a-z]+")) {
+            if (palavra.isEmpty() || PARTICULAS.contains(palavra)) continue;
+            if (!resultado.isEmpty()) resultado.append(' ');
+            resultado.append(palavra);
+        }
+        return resultado.toString();
+    }
+
+    // De 0 a 1, para nomes já normalizados: o maior entre Jaro-Winkler do nome inteiro
+    // (erros de digitação) e a sobreposição de palavras (sobrenome a mais ou a menos)
+    public static double similaridade(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        if (a.equals(b)) return 1;
+        return Math.max(jaroWinkler(a, b), sobreposicao(a, b));
+    }
+
+    // Fração das palavras do nome mais curto presentes no mais longo; exige ao menos duas
+    // palavras em comum para "Maria" não bater com todas as Marias
+    private static double sobreposicao(String a, String b) {
+        String[] pa = a.split(" ");
+        String[] pb = b.split(" ");
+        String[] curto = pa.length <= pb.length ? pa : pb;
+        Set<String> longo = new HashSet<>(Arrays.asList(pa.length <= pb.length ? pb : pa));
+
+        int comuns = 0;
+        for (String palavra : curto) {
+            if (longo.contains(palavra)) comuns++;
+        }
+        if (comuns < 2) return 0;
+        // Primeiro nome diferente não é a mesma pessoa, mesmo com os sobrenomes iguais
+        if (!pa[0].equals(pb[0])) return 0;
+        return (double) comuns / curto.length * 0.95;
+    }
+
+    private static double jaroWinkler(String a, String b) {
+        int janela = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] usadoA = new boolean[a.length()];
+        boolean[] usadoB = new boolean[b.length()];
+
+        int iguais = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int de = Math.max(0, i - janela);
+            int ate = Math.min(b.length() - 1, i + janela);
+            for (int j = de; j <= ate; j++) {
+                if (!usadoB[j] && a.charAt(i) == b.charAt(j)) {
+                    usadoA[i] = true;
+                    usadoB[j] = true;
+                    iguais++;
+                    break;
+                }
+            }
+        }
+        if (iguais == 0) return 0;
+
+        int trocas = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (!usadoA[i]) continue;
+            while (!usadoB[j]) j++;
+            if (a.charAt(i) != b.charAt(j)) trocas++;
+            j++;
+        }
+
+        double m = iguais;
+        double jaro = (m / a.length() + m / b.length() + (m - trocas / 2.0) / m) / 3;
+
+        int prefixo = 0;
+        while (prefixo < 4 && prefixo < a.length() && prefixo < b.length() && a.charAt(prefixo) == b.charAt(prefixo)) {
+            prefixo++;
+        }
+        return jaro + prefixo * 0.1 * (1 - jaro);
+    }
+}
@@ -0,0 +1,202 @@
+package com.Caminhar.api.infra.replicas;
+
+import com.Caminhar.api.DTO.PacientesRequestDTO;
+import com.Caminhar.api.DTO.PaginaDTO;
+import com.Caminhar.api.DTO.PacientesResponseDTO;
+import com.Caminhar.api.infra.tokenService.TokenService;
+import com.Caminhar.api.model.user.User;
+import com.Caminhar.api.model.user.UserRole;
+import com.Caminhar.api.repository.UserRepository;
+import com.Caminhar.api.service.PacientesService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Primário e réplica são duas bases H2 em memória; a "replicação" é uma cópia feita pelo teste
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replicas-primario;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+		"api.replicas.urls=" + ReplicasTests.REPLICA,
+		"api.replicas.verificacao-ms=3600000",
+		"api.replicas.atraso-maximo-ms=60000"
+})
+@AutoConfigureMockMvc
+class ReplicasTests {
+
+	static final String REPLICA = "jdbc:h2:mem:replicas-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private PacientesService pacientesService;
+
+	@Autowired
+	private MonitorReplicas monitor;
+
+	@Autowired
+	private HikariDataSource primario;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository users;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@AfterEach
+	void limpar() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void leiturasVaoParaReplicaEmDiaMenosParaQuemAcabouDeEscrever() {
+		replicar();
+		monitor.verificar();
+
+		comoUsuario("ana");
+		PacientesResponseDTO criado = pacientesService.criar(new PacientesRequestDTO("52998224725", "Ana Souza",
+				LocalDate.of(1990, 5, 1), null, null, null, null, false));
+
+		// A réplica ainda não tem o paciente, mas o atraso está dentro do limite
+		monitor.verificar();
+		assertEquals(1, pagina().itens().size(), "quem escreveu lê do primário");
+
+		comoUsuario("bia");
+		double antes = leiturasNaReplica();
+		assertEquals(0, pagina().itens().size(), "os demais leem da réplica");
+		assertEquals(antes + 1, leiturasNaReplica());
+
+		// Atraso acima do limite: a réplica sai do rodízio
+		ReflectionTestUtils.setField(monitor, "atrasoMaximoMs", -1L);
+		monitor.verificar();
+		assertEquals(1, pagina().itens().size());
+		ReflectionTestUtils.setField(monitor, "atrasoMaximoMs", 60000L);
+
+		// Depois de a réplica alcançar o primário, quem escreveu também volta a ler dela
+		replicar();
+		monitor.verificar();
+		comoUsuario("ana");
+		antes = leiturasNaReplica();
+		assertEquals(criado.id(), pacientesService.findById(criado.id()).id());
+		assertEquals(1, pagina().itens().size());
+		assertTrue(leiturasNaReplica() > antes);
+	}
+
+	@Test
+	void replicaEmDiaAtendeListagemComEtag() throws Exception {
+		String token = tokenDe("bia");
+		comoUsuario("ana");
+		pacientesService.criar(new PacientesRequestDTO("11144477735", "Carla Dias",
+				LocalDate.of(1985, 2, 10), null, null, null, null, false));
+		SecurityContextHolder.clearContext();
+
+		// A marca gravada nesta verificação já cobre a escrita; a réplica recebe a cópia depois dela
+		monitor.verificar();
+		replicar();
+		monitor.verificar();
+
+		double antes = leiturasNaReplica();
+		mockMvc.perform(get("/pacientes/pagina").header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andExpect(jsonPath("$.itens[?(@.nome == 'Carla Dias')]").exists());
+		assertEquals(antes + 1, leiturasNaReplica(), "a listagem com ETag é lida da réplica");
+	}
+
+	@Test
+	void replicaSemAsEscritasDaEtagNaoAtendeALeitura() throws Exception {
+		String token = tokenDe("bia");
+		replicar();
+		monitor.verificar();
+
+		comoUsuario("ana");
+		pacientesService.criar(new PacientesRequestDTO("15350946056", "Elisa Rocha",
+				LocalDate.of(1995, 11, 3), null, null, null, null, false));
+		SecurityContextHolder.clearContext();
+
+		// Dentro do atraso aceito, mas sem a escrita que a ETag nova já conta
+		monitor.verificar();
+		double antes = leiturasNaReplica();
+		mockMvc.perform(get("/pacientes/pagina").header("Authorization", token))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andExpect(jsonPath("$.itens[?(@.nome == 'Elisa Rocha')]").exists());
+		assertEquals(antes, leiturasNaReplica(), "dados velhos não saem com a ETag nova");
+	}
+
+	@Test
+	void replicaQueVoltaDoAtrasoPrecisaAlcancarOPrimario() {
+		replicar();
+		monitor.verificar();
+
+		// Fora do rodízio pelo atraso; enquanto isso o primário recebe outra escrita
+		ReflectionTestUtils.setField(monitor, "atrasoMaximoMs", -1L);
+		monitor.verificar();
+		comoUsuario("ana");
+		pacientesService.criar(new PacientesRequestDTO("39053344705", "Davi Lima",
+				LocalDate.of(1970, 8, 20), null, null, null, null, false));
+		SecurityContextHolder.clearContext();
+		monitor.verificar();
+
+		// O atraso medido volta ao limite, mas a réplica não tem a marca da verificação anterior
+		ReflectionTestUtils.setField(monitor, "atrasoMaximoMs", 60000L);
+		monitor.verificar();
+		comoUsuario("bia");
+		double antes = leiturasNaReplica();
+		pagina();
+		assertEquals(antes, leiturasNaReplica(), "réplica atrás do primário não volta ao rodízio");
+
+		replicar();
+		monitor.verificar();
+		pagina();
+		assertEquals(antes + 1, leiturasNaReplica());
+	}
+
+	private PaginaDTO<PacientesResponseDTO> pagina() {
+		return pacientesService.listarPagina(null, 10);
+	}
+
+	private double leiturasNaReplica() {
+		return meterRegistry.get("api.replicas.leituras").tag("destino", "replica").counter().count();
+	}
+
+	// Token de um usuário gravado no primário (e levado à réplica pela próxima cópia)
+	private String tokenDe(String login) {
+		User usuario = (User) users.findByLogin(login);
+		if (usuario == null) usuario = users.save(new User(login, passwordEncoder.encode("123"), UserRole.USER));
+		return "Bearer " + tokenService.generateToken(usuario);
+	}
+
+	private static void comoUsuario(String login) {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, null, List.of()));
+	}
+
+	// Copia o primário inteiro para a réplica
+	private void replicar() {
+		new JdbcTemplate(primario).execute("SCRIPT DROP TO 'target/replica.sql'");
+		new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "")).execute("RUNSCRIPT FROM 'target/replica.sql'");
+	}
+}
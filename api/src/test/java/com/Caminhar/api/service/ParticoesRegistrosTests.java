@@ -0,0 +1,111 @@
+package com.Caminhar.api.service;
+
+import com.Caminhar.api.DTO.RegistroConsultaRequestDTO;
+import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Conversão para partições e arquivamento de um mês no PostgreSQL (o H2 não tem partições). Sem Docker, ignorado.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ParticoesRegistrosTests {
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private ParticoesRegistrosService particoes;
+
+	@Autowired
+	private ArquivoRegistrosService arquivo;
+
+	@Autowired
+	private RegistroConsultaService registros;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void tabelaConvertidaMantemIdUnico() {
+		assertTrue(particoes.particionada());
+		assertEquals("p", jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass('registro_consultas')", String.class));
+
+		LocalDate hoje = LocalDate.now();
+		RegistroConsultaResponseDTO criado = registros.create(new RegistroConsultaRequestDTO("Retorno", null, null, null, hoje, null));
+		RegistroConsultaResponseDTO semData = registros.create(new RegistroConsultaRequestDTO("Sem data", null, null, null, null, null));
+		assertNotEquals(criado.id(), semData.id());
+
+		assertThrows(DataIntegrityViolationException.class, () -> copiar(criado.id(), hoje));
+		assertThrows(DataIntegrityViolationException.class, () -> copiar(semData.id(), null));
+		assertEquals("Retorno", registros.findById(criado.id()).consulta());
+	}
+
+	@Test
+	void arquivarMesComParticaoMantemMarcacoesDeRemocao() {
+		YearMonth mes = YearMonth.of(2019, 3);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			ids.add(registros.create(new RegistroConsultaRequestDTO("Antiga " + i, null, "Gripe", null, mes.atDay(i), null)).id());
+		}
+		// Criada depois das linhas, que estavam na partição padrão
+		ReflectionTestUtils.invokeMethod(particoes, "criar", mes);
+		assertEquals("registro_consultas_2019_03", particoes.particao(mes));
+		registros.delete(ids.get(0));
+
+		assertEquals(4, arquivo.arquivar(mes));
+
+		assertNull(particoes.particao(mes));
+		assertEquals(List.of(ids.get(0)), jdbc.queryForList(
+				"SELECT id FROM registro_consultas WHERE data_registro >= '2019-03-01' AND data_registro < '2019-04-01' AND removido = true", Long.class));
+		assertEquals(0, jdbc.queryForObject(
+				"SELECT COUNT(*) FROM registro_consultas WHERE data_registro >= '2019-03-01' AND data_registro < '2019-04-01' AND removido = false", Long.class));
+		assertEquals("Antiga 3", registros.findById(ids.get(2)).consulta());
+	}
+
+	@Test
+	void conversaoCopiaAsLinhasDaTabelaComum() {
+		// Volta a registro_consultas a uma tabela comum, com a mesma estrutura e algumas linhas
+		jdbc.execute("CREATE TABLE registro_consultas_comum (LIKE registro_consultas INCLUDING DEFAULTS)");
+		jdbc.execute("DROP TABLE registro_consultas CASCADE");
+		jdbc.execute("ALTER TABLE registro_consultas_comum RENAME TO registro_consultas");
+		jdbc.execute("ALTER TABLE registro_consultas ADD PRIMARY KEY (id)");
+		jdbc.execute("CREATE INDEX idx_registro_consultas_data ON registro_consultas (data_registro, id)");
+		LocalDate[] datas = {LocalDate.of(2018, 1, 10), LocalDate.of(2018, 1, 20), LocalDate.of(2018, 2, 5), null};
+		for (int i = 0; i < datas.length; i++) copiar(100L + i, datas[i]);
+
+		ReflectionTestUtils.setField(particoes, "particionada", false);
+		particoes.run(null);
+
+		assertEquals("p", jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE oid = to_regclass('registro_consultas')", String.class));
+		assertEquals("registro_consultas_2018_01", particoes.particao(YearMonth.of(2018, 1)));
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM registro_consultas_2018_01", Long.class));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM registro_consultas_padrao", Long.class));
+		assertEquals(List.of("idx_registro_consultas_data", "uk_registro_consultas_id"), jdbc.queryForList(
+				"SELECT indexname FROM pg_indexes WHERE tablename = 'registro_consultas' ORDER BY indexname", String.class));
+
+		// A sequence continua depois do maior id copiado
+		assertTrue(registros.create(new RegistroConsultaRequestDTO("Nova", null, null, null, LocalDate.now(), null)).id() > 103);
+		assertThrows(DataIntegrityViolationException.class, () -> copiar(102L, LocalDate.of(2018, 2, 5)));
+	}
+
+	private void copiar(Long id, LocalDate data) {
+		jdbc.update("INSERT INTO registro_consultas (id, consulta, data_registro, versao_sync, removido, versao) VALUES (?, 'copia', ?, 0, false, 0)",
+				id, data);
+	}
+}
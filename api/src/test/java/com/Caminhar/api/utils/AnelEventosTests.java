@@ -0,0 +1,109 @@
+package com.Caminhar.api.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnelEventosTests {
+
+	@Test
+	void arredondaCapacidadeParaPotenciaDeDois() {
+		assertEquals(8, new AnelEventos<>(5).capacidade());
+		assertEquals(8, new AnelEventos<>(8).capacidade());
+		assertEquals(16, new AnelEventos<>(9).capacidade());
+	}
+
+	@Test
+	void recusaCheioEntregaEmOrdemEVoltaAoInicio() {
+		AnelEventos<Integer> anel = new AnelEventos<>(4);
+		List<Integer> drenados = new ArrayList<>();
+		int proximo = 0;
+		int esperado = 0;
+
+		// Várias voltas completas, para as sequências passarem da capacidade
+		for (int volta = 0; volta < 10; volta++) {
+			assertEquals(0, anel.drenar(drenados, 10), "vazio não entrega nada");
+
+			for (int i = 0; i < 4; i++) assertTrue(anel.oferecer(proximo++));
+			assertFalse(anel.oferecer(-1), "cheio recusa sem bloquear");
+
+			// Libera metade e ocupa de novo, cruzando o fim do vetor
+			assertEquals(2, anel.drenar(drenados, 2));
+			assertTrue(anel.oferecer(proximo++));
+			assertTrue(anel.oferecer(proximo++));
+			assertFalse(anel.oferecer(-1));
+
+			assertEquals(4, anel.drenar(drenados, 10));
+		}
+
+		for (int valor : drenados) assertEquals(esperado++, valor);
+		assertEquals(proximo, drenados.size());
+	}
+
+	@Test
+	@Timeout(60)
+	void variosProdutoresNaoPerdemNemRepetemItens() throws InterruptedException {
+		int produtores = 8;
+		int porProdutor = 20_000;
+		AnelEventos<long[]> anel = new AnelEventos<>(64);
+		AtomicInteger recusas = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < produtores; p++) {
+			int produtor = p;
+			Thread thread = new Thread(() -> {
+				try {
+					largada.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < porProdutor; i++) {
+					// Anel pequeno: cheio com frequência, e o item é oferecido de novo
+					while (!anel.oferecer(new long[]{produtor, i})) {
+						recusas.incrementAndGet();
+						Thread.yield();
+					}
+				}
+			});
+			// Se uma verificação falhar, produtores presos no anel cheio não seguram a JVM
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+
+		long[] ultimoPorProdutor = new long[produtores];
+		Arrays.fill(ultimoPorProdutor, -1);
+		List<long[]> lote = new ArrayList<>();
+		int recebidos = 0;
+
+		largada.countDown();
+		// O consumidor só começa depois que algum produtor encontrou o anel cheio
+		while (recusas.get() == 0) Thread.yield();
+		while (recebidos < produtores * porProdutor) {
+			lote.clear();
+			if (anel.drenar(lote, 100) == 0) {
+				Thread.yield();
+				continue;
+			}
+			for (long[] item : lote) {
+				int produtor = (int) item[0];
+				// Cada produtor publica em ordem; um item repetido ou perdido quebra a sequência
+				assertEquals(ultimoPorProdutor[produtor] + 1, item[1]);
+				ultimoPorProdutor[produtor] = item[1];
+			}
+			recebidos += lote.size();
+		}
+
+		for (Thread thread : threads) thread.join();
+		assertEquals(0, anel.drenar(lote, 1));
+		for (long ultimo : ultimoPorProdutor) assertEquals(porProdutor - 1, ultimo);
+	}
+}
@@ -0,0 +1,45 @@
+package com.Caminhar.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConjuntoLongTests {
+
+	@Test
+	void adicionaERemoveSemRepetir() {
+		ConjuntoLong conjunto = new ConjuntoLong(4);
+		assertTrue(conjunto.adicionar(52998224725L));
+		assertFalse(conjunto.adicionar(52998224725L));
+		assertTrue(conjunto.contem(52998224725L));
+		assertTrue(conjunto.remover(52998224725L));
+		assertFalse(conjunto.remover(52998224725L));
+		assertFalse(conjunto.contem(52998224725L));
+		assertEquals(0, conjunto.tamanho());
+	}
+
+	@Test
+	void concordaComHashSetAposCrescerERemover() {
+		ConjuntoLong conjunto = new ConjuntoLong(8);
+		Set<Long> esperado = new HashSet<>();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 50_000; i++) {
+			long valor = random.nextInt(20_000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(esperado.remove(valor), conjunto.remover(valor));
+			} else {
+				assertEquals(esperado.add(valor), conjunto.adicionar(valor));
+			}
+		}
+
+		assertEquals(esperado.size(), conjunto.tamanho());
+		for (long valor = 0; valor < 20_000; valor++) {
+			assertEquals(esperado.contains(valor), conjunto.contem(valor));
+		}
+	}
+}
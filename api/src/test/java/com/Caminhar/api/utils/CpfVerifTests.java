@@ -0,0 +1,45 @@
+package com.Caminhar.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpfVerifTests {
+
+	@Test
+	void validaCpfComESemMascara() {
+		assertTrue(CpfVerif.cpfValido("529.982.247-25"));
+		assertTrue(CpfVerif.cpfValido("52998224725"));
+		assertTrue(CpfVerif.cpfValido("98765432100"));
+		assertFalse(CpfVerif.cpfValido("529.982.247-26"));
+		assertFalse(CpfVerif.cpfValido("111.111.111-11"));
+		assertFalse(CpfVerif.cpfValido("5299822472"));
+		assertFalse(CpfVerif.cpfValido("529982247250"));
+		assertFalse(CpfVerif.cpfValido((String) null));
+	}
+
+	@Test
+	void normalizaParaLong() {
+		assertEquals(52998224725L, CpfVerif.normalizar("529.982.247-25"));
+		assertEquals(CpfVerif.INVALIDO, CpfVerif.normalizar("000.000.000-00"));
+		assertTrue(CpfVerif.cpfValido(52998224725L));
+		assertFalse(CpfVerif.cpfValido(52998224726L));
+		assertEquals("01234567890", CpfVerif.formatar(1234567890L));
+		assertTrue(CpfVerif.cpfValido(1234567890L));
+
+		byte[] ascii = "x 529.982.247-25 x".getBytes();
+		assertEquals(52998224725L, CpfVerif.normalizar(ascii, 0, ascii.length));
+	}
+
+	@Test
+	void loteConcordaComValidacaoIndividual() {
+		String[] cpfs = {"529.982.247-25", "111.111.111-11", "98765432100", "123", null, "98765432101", "012.345.678-90"};
+		boolean[] resultado = new boolean[cpfs.length];
+
+		CpfVerif.validarLote(cpfs, resultado);
+
+		for (int i = 0; i < cpfs.length; i++) {
+			assertEquals(CpfVerif.cpfValido(cpfs[i]), resultado[i], "CPF " + cpfs[i]);
+		}
+	}
+}
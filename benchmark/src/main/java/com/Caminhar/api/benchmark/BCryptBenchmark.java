@@ -0,0 +1,40 @@
+package com.Caminhar.api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de um login (matches) e de um cadastro (encode) por fator de custo do BCrypt,
+// para escolher api.security.bcrypt.forca e dimensionar api.security.bcrypt.threads:
+// vazão máxima de logins ≈ threads × 1000 / (ms por matches).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int forca;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptPasswordEncoder(forca);
+        hash = encoder.encode("senha-do-benchmark");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("senha-do-benchmark", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("senha-do-benchmark");
+    }
+}
@@ -0,0 +1,315 @@
+package com.Caminhar.api.benchmark;
+
+import com.Caminhar.api.ApiApplication;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.model.RegistroConsultas;
+import com.Caminhar.api.model.user.User;
+import com.Caminhar.api.model.user.UserRole;
+import com.Caminhar.api.repository.PacientesRepository;
+import com.Caminhar.api.repository.RegistroConsultaRepository;
+import com.Caminhar.api.repository.UserRepository;
+import com.Caminhar.api.DTO.RegistroConsultaRequestDTO;
+import com.Caminhar.api.service.DashboardService;
+import com.Caminhar.api.service.ResumoService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Teste de carga HTTP em processo: sobe a API numa porta aleatória com H2 em modo PostgreSQL,
+// popula a base e mede vazão e latência (p50/p99) dos endpoints mais usados.
+//
+// Opções (chave=valor): concorrencia=32 segundos=10 aquecimento=3 pacientes=2000 registros=5000
+//                       cenarios=pacientes,registros,dashboard,login
+//                       modos=plataforma,virtual  (repete tudo em cada modo de execução e compara)
+// Chaves com ponto são repassadas à aplicação, ex.: spring.datasource.url=jdbc:postgresql://...
+// para medir contra um Postgres real, onde a espera de E/S é o que as threads virtuais aproveitam.
+public class CargaHttp {
+
+    // concorrente: requisição disparada em paralelo durante a medição, sem entrar nas latências
+    private record Cenario(String nome, HttpRequest requisicao, HttpRequest concorrente) {
+        Cenario(String nome, HttpRequest requisicao) {
+            this(nome, requisicao, null);
+        }
+    }
+
+    private record Medicao(long[] latencias, long erros) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // O restart do devtools relançaria este main com os argumentos do Spring
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        Map<String, String> opcoes = lerOpcoes(args);
+        String modos = opcoes.get("modos");
+        if (modos == null) {
+            rodar(opcoes, null);
+            return;
+        }
+
+        Map<String, Map<String, Double>> vazaoPorModo = new LinkedHashMap<>();
+        for (String modo : modos.split(",")) {
+            vazaoPorModo.put(modo, rodar(opcoes, modo.equals("virtual")));
+        }
+
+        System.out.printf("%n%-32s", "req/s por modo");
+        vazaoPorModo.keySet().forEach(modo -> System.out.printf(" %12s", modo));
+        System.out.println();
+        for (String cenario : vazaoPorModo.values().iterator().next().keySet()) {
+            System.out.printf("%-32s", cenario);
+            vazaoPorModo.values().forEach(vazao -> System.out.printf(" %12.1f", vazao.getOrDefault(cenario, 0.0)));
+            System.out.println();
+        }
+    }
+
+    // virtual == null mantém o modo configurado pelas opções; devolve req/s por cenário
+    private static Map<String, Double> rodar(Map<String, String> opcoes, Boolean virtual) throws Exception {
+        int concorrencia = Integer.parseInt(opcoes.getOrDefault("concorrencia", "32"));
+        int segundos = Integer.parseInt(opcoes.getOrDefault("segundos", "10"));
+        int aquecimento = Integer.parseInt(opcoes.getOrDefault("aquecimento", "3"));
+        int pacientes = Integer.parseInt(opcoes.getOrDefault("pacientes", "2000"));
+        int registros = Integer.parseInt(opcoes.getOrDefault("registros", "5000"));
+        List<String> filtro = Arrays.asList(opcoes.getOrDefault("cenarios", "pacientes,registros,dashboard,login").split(","));
+
+        // Cada execução usa um banco em memória próprio
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN"
+        ));
+        // Repassa propriedades extras da aplicação, ex.: spring.threads.virtual.enabled=true
+        opcoes.forEach((chave, valor) -> {
+            if (chave.contains(".")) argumentos.add("--" + chave + "=" + valor);
+        });
+        if (virtual != null) argumentos.add("--spring.threads.virtual.enabled=" + virtual);
+        // Todo o tráfego sai do mesmo IP; sem isso o cenário de login mediria só respostas 429
+        if (!opcoes.containsKey("api.security.login.por-ip.capacidade")) {
+            argumentos.add("--api.security.login.por-ip.capacidade=1000000000");
+        }
+
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ApiApplication.class)
+                .run(argumentos.toArray(String[]::new));
+
+        Map<String, Double> vazao = new LinkedHashMap<>();
+        try {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            popular(contexto, client, base, pacientes, registros);
+            String token = login(client, base);
+
+            List<Cenario> cenarios = new ArrayList<>();
+            if (filtro.contains("pacientes")) {
+                cenarios.add(new Cenario("GET /pacientes", get(base + "/pacientes", token)));
+                cenarios.add(new Cenario("GET /pacientes/pagina", get(base + "/pacientes/pagina?limite=50", token)));
+            }
+            if (filtro.contains("registros")) {
+                cenarios.add(new Cenario("GET /registro-consultas", get(base + "/registro-consultas", token)));
+                cenarios.add(new Cenario("GET /registro-consultas/pagina", get(base + "/registro-consultas/pagina?limite=50", token)));
+                cenarios.add(new Cenario("GET /pacientes/{id}/registros", get(base + "/pacientes/1/registros?limite=50", token)));
+            }
+            if (filtro.contains("dashboard")) {
+                cenarios.add(new Cenario("GET /dashboard/stats", get(base + "/dashboard/stats", token)));
+                cenarios.add(new Cenario("GET /dashboard/series (ano, semanal)",
+                        get(base + "/dashboard/series?inicio=" + LocalDate.now().minusDays(364) + "&granularidade=semana", token)));
+            }
+            if (filtro.contains("login")) {
+                HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"login\":\"carga\",\"password\":\"carga\"}"))
+                        .build();
+                cenarios.add(new Cenario("POST /auth/login", login));
+                // Rajada de logins não pode derrubar a vazão do resto da API
+                cenarios.add(new Cenario("GET /pacientes/pagina + logins", get(base + "/pacientes/pagina?limite=50", token), login));
+            }
+
+            System.out.printf("%nconcorrência=%d, duração=%ds, pacientes=%d, registros=%d, threads virtuais=%s%n%n",
+                    concorrencia, segundos, pacientes, registros,
+                    contexto.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+            System.out.printf("%-32s %12s %10s %10s %10s %8s%n", "cenário", "req/s", "p50 (ms)", "p99 (ms)", "máx (ms)", "erros");
+
+            for (Cenario cenario : cenarios) {
+                executar(client, cenario, concorrencia, aquecimento);
+                Medicao medicao = executar(client, cenario, concorrencia, segundos);
+
+                long[] latencias = medicao.latencias();
+                Arrays.sort(latencias);
+                vazao.put(cenario.nome(), latencias.length / (double) segundos);
+                System.out.printf("%-32s %12.1f %10.2f %10.2f %10.2f %8d%n",
+                        cenario.nome(),
+                        latencias.length / (double) segundos,
+                        percentil(latencias, 0.50),
+                        percentil(latencias, 0.99),
+                        latencias.length == 0 ? 0 : latencias[latencias.length - 1] / 1e6,
+                        medicao.erros());
+            }
+        } finally {
+            contexto.close();
+        }
+        return vazao;
+    }
+
+    private static Medicao executar(HttpClient client, Cenario cenario, int concorrencia, int segundos) throws Exception {
+        long fim = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        AtomicLong erros = new AtomicLong();
+
+        // Clientes em threads virtuais: concorrência de milhares sem o gerador virar o gargalo
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            if (cenario.concorrente() != null) {
+                for (int i = 0; i < concorrencia; i++) {
+                    executor.submit(() -> {
+                        while (System.nanoTime() < fim) {
+                            try {
+                                client.send(cenario.concorrente(), HttpResponse.BodyHandlers.discarding());
+                            } catch (Exception ignorada) {
+                                // só gera carga
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            List<Future<long[]>> tarefas = new ArrayList<>();
+            for (int i = 0; i < concorrencia; i++) {
+                tarefas.add(executor.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int quantidade = 0;
+
+                    while (System.nanoTime() < fim) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resposta = client.send(cenario.requisicao(), HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() >= 400) erros.incrementAndGet();
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                            continue;
+                        }
+
+                        if (quantidade == latencias.length) latencias = Arrays.copyOf(latencias, quantidade * 2);
+                        latencias[quantidade++] = System.nanoTime() - inicio;
+                    }
+                    return Arrays.copyOf(latencias, quantidade);
+                }));
+            }
+
+            List<long[]> partes = new ArrayList<>();
+            int total = 0;
+            for (Future<long[]> tarefa : tarefas) {
+                long[] parte = tarefa.get();
+                partes.add(parte);
+                total += parte.length;
+            }
+
+            long[] todas = new long[total];
+            int posicao = 0;
+            for (long[] parte : partes) {
+                System.arraycopy(parte, 0, todas, posicao, parte.length);
+                posicao += parte.length;
+            }
+            return new Medicao(todas, erros.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void popular(ConfigurableApplicationContext contexto, HttpClient client, String base,
+                                int pacientes, int registros) throws Exception {
+        UserRepository users = contexto.getBean(UserRepository.class);
+        PasswordEncoder encoder = contexto.getBean(PasswordEncoder.class);
+        users.save(new User("carga", encoder.encode("carga"), UserRole.ADMIN));
+
+        String token = login(client, base);
+        Random random = new Random(42);
+
+        // Pacientes pela própria API de importação
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < pacientes; i++) {
+            ndjson.append("{\"cpf\":\"").append(DadosFicticios.gerarCpf(random))
+                    .append("\",\"nomePas\":\"").append(DadosFicticios.gerarNome(random))
+                    .append("\",\"dataNascimento\":\"").append(LocalDate.of(1940 + random.nextInt(80), 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                    .append("\",\"observacoes\":\"Paciente em acompanhamento\",\"obito\":false}\n");
+        }
+        HttpResponse<String> importacao = client.send(HttpRequest.newBuilder(URI.create(base + "/pacientes/importar"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (importacao.statusCode() != 200) {
+            throw new IllegalStateException("Falha ao importar pacientes: " + importacao.body());
+        }
+
+        // Registros distribuídos entre os pacientes importados, para a linha do tempo
+        List<Pacientes> todos = contexto.getBean(PacientesRepository.class).findAll();
+        RegistroConsultaRepository registroRepository = contexto.getBean(RegistroConsultaRepository.class);
+        List<RegistroConsultas> lote = new ArrayList<>();
+        for (int i = 0; i < registros; i++) {
+            RegistroConsultas registro = new RegistroConsultas(new RegistroConsultaRequestDTO("Consulta " + i,
+                    "Dor de cabeça e febre há três dias", "Virose", "Hemograma",
+                    LocalDate.now().minusDays(random.nextInt(365)), null));
+            if (!todos.isEmpty()) registro.setPaciente(todos.get(random.nextInt(todos.size())));
+            lote.add(registro);
+            if (lote.size() == 500) {
+                registroRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        registroRepository.saveAll(lote);
+
+        contexto.getBean(DashboardService.class).reconciliar();
+        // Os registros entraram direto pelo repositório, sem marcar os dias do resumo
+        contexto.getBean(ResumoService.class).reconstruir();
+    }
+
+    private static String login(HttpClient client, String base) throws Exception {
+        HttpResponse<String> resposta = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"login\":\"carga\",\"password\":\"carga\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return resposta.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    private static Map<String, String> lerOpcoes(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual > 0) opcoes.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        return opcoes;
+    }
+}
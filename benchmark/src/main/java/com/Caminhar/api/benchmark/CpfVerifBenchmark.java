@@ -0,0 +1,63 @@
+package com.Caminhar.api.benchmark;
+
+import com.Caminhar.api.utils.CpfVerif;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CpfVerifBenchmark {
+
+    private static final int QUANTIDADE = 1024;
+
+    private String[] cpfs;
+    private long[] numeros;
+    private boolean[] resultado;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        cpfs = new String[QUANTIDADE];
+        numeros = new long[QUANTIDADE];
+        resultado = new boolean[QUANTIDADE];
+
+        for (int i = 0; i < QUANTIDADE; i++) {
+            String cpf = DadosFicticios.gerarCpf(random);
+            // Metade com máscara, como chega do front-end
+            cpfs[i] = i % 2 == 0 ? cpf : cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+            numeros[i] = Long.parseLong(cpf);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public void legado(Blackhole bh) {
+        for (String cpf : cpfs) bh.consume(CpfVerifLegado.cpfValido(cpf));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public void passadaUnica(Blackhole bh) {
+        for (String cpf : cpfs) bh.consume(CpfVerif.cpfValido(cpf));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public void numeroLong(Blackhole bh) {
+        for (long cpf : numeros) bh.consume(CpfVerif.cpfValido(cpf));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public boolean[] lote() {
+        CpfVerif.validarLote(cpfs, resultado);
+        return resultado;
+    }
+}
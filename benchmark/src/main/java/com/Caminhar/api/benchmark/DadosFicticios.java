@@ -0,0 +1,31 @@
+package com.Caminhar.api.benchmark;
+
+import java.util.Random;
+
+// Geração de dados de teste compartilhada pelos benchmarks
+public class DadosFicticios {
+
+    private static final String[] NOMES = {"Ana", "João", "Maria", "José", "Antônio", "Francisca", "Carlos", "Paulo", "Lúcia", "Pedro"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira", "Ferreira", "Costa", "Rodrigues", "Almeida"};
+
+    public static String gerarCpf(Random random) {
+        int[] d = new int[11];
+        for (int i = 0; i < 9; i++) d[i] = random.nextInt(10);
+
+        int soma1 = 0;
+        for (int i = 0; i < 9; i++) soma1 += d[i] * (10 - i);
+        d[9] = 11 - soma1 % 11 >= 10 ? 0 : 11 - soma1 % 11;
+
+        int soma2 = 0;
+        for (int i = 0; i < 10; i++) soma2 += d[i] * (11 - i);
+        d[10] = 11 - soma2 % 11 >= 10 ? 0 : 11 - soma2 % 11;
+
+        StringBuilder sb = new StringBuilder(11);
+        for (int x : d) sb.append(x);
+        return sb.toString();
+    }
+
+    public static String gerarNome(Random random) {
+        return NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+    }
+}
@@ -0,0 +1,61 @@
+package com.Caminhar.api.benchmark;
+
+import com.Caminhar.api.DTO.PacientesRequestDTO;
+import com.Caminhar.api.DTO.PacientesResponseDTO;
+import com.Caminhar.api.DTO.RegistroConsultaRequestDTO;
+import com.Caminhar.api.DTO.RegistroConsultaResponseDTO;
+import com.Caminhar.api.model.Pacientes;
+import com.Caminhar.api.model.RegistroConsultas;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMapeamentoBenchmark {
+
+    private Pacientes paciente;
+    private RegistroConsultas registro;
+    private ObjectWriter writerPaciente;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+
+        paciente = new Pacientes(new PacientesRequestDTO(DadosFicticios.gerarCpf(random), DadosFicticios.gerarNome(random),
+                LocalDate.of(1980, 5, 17), "01001-000", "(11) 99999-0000", "Praça da Sé, 1",
+                "Paciente hipertenso, acompanhamento mensal.", false));
+        paciente.setId(1L);
+
+        registro = new RegistroConsultas(new RegistroConsultaRequestDTO("Retorno", "Dor de cabeça há três dias",
+                "Enxaqueca", "Hemograma completo", LocalDate.now(), 1L));
+        registro.setId(1L);
+        registro.setPaciente(paciente);
+
+        writerPaciente = new ObjectMapper().registerModule(new JavaTimeModule()).writerFor(PacientesResponseDTO.class);
+    }
+
+    @Benchmark
+    public PacientesResponseDTO pacienteParaDto() {
+        return new PacientesResponseDTO(paciente);
+    }
+
+    @Benchmark
+    public RegistroConsultaResponseDTO registroParaDto() {
+        return new RegistroConsultaResponseDTO(registro);
+    }
+
+    @Benchmark
+    public byte[] pacienteParaJson() throws Exception {
+        return writerPaciente.writeValueAsBytes(new PacientesResponseDTO(paciente));
+    }
+}
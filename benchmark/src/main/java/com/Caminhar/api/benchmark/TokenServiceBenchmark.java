@@ -0,0 +1,44 @@
+package com.Caminhar.api.benchmark;
+
+import com.Caminhar.api.infra.tokenService.TokenService;
+import com.Caminhar.api.model.user.User;
+import com.Caminhar.api.model.user.UserRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "segredo-de-benchmark");
+        ReflectionTestUtils.setField(tokenService, "acessoMinutos", 15L);
+        ReflectionTestUtils.setField(tokenService, "refreshHoras", 12L);
+        ReflectionTestUtils.invokeMethod(tokenService, "init");
+
+        user = new User("admin", "senha", UserRole.ADMIN);
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return tokenService.validateToken(token);
+    }
+}